@@ -0,0 +1,55 @@
+package cn.popcraft.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 过渡曲线查找表与解析公式的吞吐量对比，运行 ./gradlew jmh
+ * 误差由 TransitionTypeTest 检查
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransitionTypeBenchmark {
+    private static final int BATCH = 1024;
+
+    @Param({"EASE_IN_OUT", "BOUNCE", "ELASTIC"})
+    public TransitionType type;
+
+    private final double[] progress = new double[BATCH];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < BATCH; i++) {
+            progress[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void exact(Blackhole blackhole) {
+        for (double t : progress) {
+            blackhole.consume(type.calculateExact(t));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void lookup(Blackhole blackhole) {
+        for (double t : progress) {
+            blackhole.consume(type.lookup(t));
+        }
+    }
+}
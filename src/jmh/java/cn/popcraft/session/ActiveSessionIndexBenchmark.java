@@ -0,0 +1,128 @@
+package cn.popcraft.session;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 移动事件中查找相机模式会话的开销，运行 ./gradlew jmh
+ * 对比实体ID标记索引与直接按UUID查找HashMap，分别测量不在相机模式中的玩家(绝大多数事件)和处于相机模式的玩家
+ * 没有会话处于相机模式时移动事件监听器不会注册，0个会话的结果只作为查找本身的下限参考
+ * 玩家由动态代理实现，每次读取实体ID或UUID都包含一次代理调用，处于相机模式时索引比直接查找多一次调用
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ActiveSessionIndexBenchmark {
+    private static final int BATCH = 1024;
+    private static final int MAX_ENTITY_ID = 200_000; // 长时间运行的服务器上实体ID的大致范围
+
+    @Param({"0", "1000"})
+    public int sessions;
+
+    private final ActiveSessionIndex index = new ActiveSessionIndex();
+    private final Map<UUID, CameraSession> map = new HashMap<>();
+    private final Player[] outside = new Player[BATCH]; // 不在相机模式中的玩家
+    private Player[] inside; // 处于相机模式的玩家
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        boolean[] usedIds = new boolean[MAX_ENTITY_ID];
+        for (int i = 0; i < BATCH; i++) {
+            outside[i] = createPlayer(nextEntityId(random, usedIds));
+        }
+        int insideCount = Math.max(1, sessions);
+        inside = new Player[insideCount];
+        for (int i = 0; i < insideCount; i++) {
+            inside[i] = createPlayer(nextEntityId(random, usedIds));
+        }
+        for (int i = 0; i < sessions; i++) {
+            CameraSession session = new CameraSession(inside[i]);
+            index.put(inside[i], session);
+            map.put(inside[i].getUniqueId(), session);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void indexOutside(Blackhole blackhole) {
+        for (Player player : outside) {
+            blackhole.consume(index.get(player));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void mapOutside(Blackhole blackhole) {
+        for (Player player : outside) {
+            blackhole.consume(map.get(player.getUniqueId()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void indexInside(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(index.get(inside[i % inside.length]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void mapInside(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(map.get(inside[i % inside.length].getUniqueId()));
+        }
+    }
+
+    private static int nextEntityId(Random random, boolean[] usedIds) {
+        int entityId;
+        do {
+            entityId = random.nextInt(MAX_ENTITY_ID);
+        } while (usedIds[entityId]);
+        usedIds[entityId] = true;
+        return entityId;
+    }
+
+    /**
+     * 创建只实现实体ID、UUID和位置的玩家，与服务器的玩家对象一样每次返回同一个UUID对象
+     */
+    private static Player createPlayer(int entityId) {
+        UUID uuid = UUID.randomUUID();
+        Location location = new Location(null, 0.0, 64.0, 0.0);
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getEntityId":
+                        return entityId;
+                    case "getUniqueId":
+                        return uuid;
+                    case "getLocation":
+                        return location.clone();
+                    case "hashCode":
+                        return entityId;
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
@@ -1,9 +1,12 @@
 package cn.popcraft;
 
+import cn.popcraft.listener.CameraMoveListener;
+import cn.popcraft.session.ActiveSessionIndex;
 import cn.popcraft.session.CameraSession;
 import cn.popcraft.session.SessionManager;
 import org.bukkit.entity.Player;
 import org.bukkit.GameMode;
+import org.bukkit.event.HandlerList;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -13,16 +16,21 @@ import java.util.stream.Collectors;
 public class SessionManagerImpl implements SessionManager {
     private final VirtualCameraPlugin plugin;
     private final Map<UUID, CameraSession> sessions = new HashMap<>();
+    private final ActiveSessionIndex activeSessions = new ActiveSessionIndex(); // 处于相机模式的会话
+    private final CameraMoveListener moveListener; // 只在有会话处于相机模式时注册
 
     public SessionManagerImpl(VirtualCameraPlugin plugin) {
         this.plugin = plugin;
+        this.moveListener = new CameraMoveListener(this);
     }
 
     @Override
     public CameraSession getSession(Player player) {
         UUID playerId = player.getUniqueId();
         if (!sessions.containsKey(playerId)) {
-            sessions.put(playerId, new CameraSession(player));
+            CameraSession session = new CameraSession(player);
+            session.setCameraModeListener(() -> onCameraModeChanged(player, session));
+            sessions.put(playerId, session);
         }
         return sessions.get(playerId);
     }
@@ -32,6 +40,29 @@ public class SessionManagerImpl implements SessionManager {
         return sessions.containsKey(player.getUniqueId());
     }
 
+    @Override
+    public CameraSession getActiveSession(Player player) {
+        return activeSessions.get(player);
+    }
+
+    /**
+     * 会话进入或退出相机模式时更新活动会话，并按需注册移动事件监听器
+     * 没有玩家处于相机模式时服务器上的移动和传送事件完全不经过本插件
+     */
+    private void onCameraModeChanged(Player player, CameraSession session) {
+        boolean wasEmpty = activeSessions.isEmpty();
+        if (session.isInCameraMode()) {
+            activeSessions.put(player, session);
+        } else {
+            activeSessions.remove(player);
+        }
+        if (wasEmpty && !activeSessions.isEmpty()) {
+            plugin.getServer().getPluginManager().registerEvents(moveListener, plugin);
+        } else if (!wasEmpty && activeSessions.isEmpty()) {
+            HandlerList.unregisterAll(moveListener);
+        }
+    }
+
     @Override
     public void removeSession(Player player) {
         UUID playerId = player.getUniqueId();
@@ -68,12 +99,6 @@ public class SessionManagerImpl implements SessionManager {
 
     @Override
     public int getActiveCameraCount() {
-        int count = 0;
-        for (CameraSession session : sessions.values()) {
-            if (session.isInCameraMode()) {
-                count++;
-            }
-        }
-        return count;
+        return activeSessions.size();
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import cn.popcraft.manager.CameraPresetManager;
 import cn.popcraft.manager.RandomSwitchController;
 import cn.popcraft.manager.TimedSequenceController;
 import cn.popcraft.session.SessionManager;
+import cn.popcraft.util.CameraTickDriver;
 
 public interface VirtualCamera {
     CameraPresetManager getPresetManager();
@@ -13,5 +14,6 @@ public interface VirtualCamera {
     RandomSwitchController getRandomController();
     CameraManager getCameraManager();
     SessionManager getSessionManager();
+    CameraTickDriver getTickDriver();
     Plugin getPlugin();
 }
\ No newline at end of file
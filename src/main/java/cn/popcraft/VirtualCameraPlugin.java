@@ -7,7 +7,11 @@ import cn.popcraft.manager.TimedSequenceController;
 import cn.popcraft.command.CameraCommand;
 import cn.popcraft.command.CameraTabCompleter;
 import cn.popcraft.listener.CameraListener;
+import cn.popcraft.model.TransitionType;
 import cn.popcraft.session.SessionManager;
+import cn.popcraft.util.AsyncPoseWorker;
+import cn.popcraft.util.CameraTickDriver;
+import cn.popcraft.util.PlaybackClock;
 import cn.popcraft.util.ProtocolCameraController;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -19,19 +23,44 @@ public class VirtualCameraPlugin extends JavaPlugin implements VirtualCamera {
     private CameraManager cameraManager;
     private SessionManager sessionManager;
     private ProtocolCameraController protocolCameraController;
+    private CameraTickDriver tickDriver;
+    private AsyncPoseWorker poseWorker;
     
     @Override
     public void onEnable() {
         // 保存默认配置
         saveDefaultConfig();
         
+        // 过渡曲线计算方式
+        TransitionType.setLookupEnabled(getConfig().getBoolean("settings.easing_lookup_table", true));
+        
+        // 动画播放时钟的追赶策略
+        PlaybackClock.CatchUpPolicy catchUpPolicy = PlaybackClock.CatchUpPolicy.parse(
+            getConfig().getString("settings.playback.catch_up", "SKIP"));
+        if (catchUpPolicy == null) {
+            getLogger().warning("无效的追赶策略: " + getConfig().getString("settings.playback.catch_up") + "，使用 SKIP");
+        }
+        PlaybackClock.setDefaults(catchUpPolicy, getConfig().getLong("settings.playback.max_catch_up_ms", 100L));
+        
+        // 所有相机动画共用的tick驱动器
+        tickDriver = new CameraTickDriver(this);
+        
         // 初始化管理器
         presetManager = new CameraPresetManager(this);
         sequenceController = new TimedSequenceController(this);
         randomController = new RandomSwitchController(this);
         sessionManager = new SessionManagerImpl(this);
         cameraManager = new CameraManager(this, sessionManager);
-        protocolCameraController = new ProtocolCameraController(this);
+        
+        // 异步计算ProtocolLib动画的姿态，主线程只发送数据包或完全不参与
+        if (getConfig().getBoolean("settings.async_pose.enabled", false)) {
+            poseWorker = new AsyncPoseWorker(this, tickDriver,
+                getConfig().getInt("settings.async_pose.threads", 2),
+                getConfig().getInt("settings.async_pose.frame_rate", 20),
+                getConfig().getBoolean("settings.async_pose.send_async", false),
+                getConfig().getInt("settings.async_pose.max_packets_per_second", 60));
+        }
+        protocolCameraController = new ProtocolCameraController(this, tickDriver, poseWorker);
         
         // 注册命令
         CameraCommand cameraCommand = new CameraCommand(this, sessionManager, cameraManager);
@@ -54,6 +83,14 @@ public class VirtualCameraPlugin extends JavaPlugin implements VirtualCamera {
             protocolCameraController.cleanup();
         }
         
+        if (poseWorker != null) {
+            poseWorker.shutdown();
+        }
+        
+        if (tickDriver != null) {
+            tickDriver.shutdown();
+        }
+        
         getLogger().info("VirtualCamera 已禁用!");
     }
     
@@ -79,6 +116,11 @@ public class VirtualCameraPlugin extends JavaPlugin implements VirtualCamera {
         return sessionManager;
     }
 
+    @Override
+    public CameraTickDriver getTickDriver() {
+        return tickDriver;
+    }
+
     @Override
     public Plugin getPlugin() {
         return this;
@@ -4,9 +4,13 @@ import cn.popcraft.VirtualCameraPlugin;
 import cn.popcraft.manager.CameraManager;
 import cn.popcraft.manager.RandomSwitchController;
 import cn.popcraft.model.CameraPreset;
+import cn.popcraft.model.Easing;
+import cn.popcraft.model.PathMode;
 import cn.popcraft.model.TransitionType;
 import cn.popcraft.session.CameraSession;
 import cn.popcraft.session.SessionManager;
+import cn.popcraft.util.CameraPacketStats;
+import cn.popcraft.util.PathSimplifier;
 import cn.popcraft.model.CameraSequence;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
@@ -134,6 +138,30 @@ public class CameraCommand implements CommandExecutor {
             case "segment":
                 handleSegmentConfig(player, args);
                 break;
+                
+            case "path":
+                handlePathMode(player, args);
+                break;
+                
+            case "simplify":
+                handleSimplify(player, args);
+                break;
+
+            case "pause":
+                handlePause(player);
+                break;
+
+            case "resume":
+                handleResume(player);
+                break;
+
+            case "seek":
+                handleSeek(player, args);
+                break;
+
+            case "stats":
+                handleStats(player);
+                break;
 
             case "random":
                 if (args.length < 2) {
@@ -284,7 +312,7 @@ public class CameraCommand implements CommandExecutor {
         
         if (args.length < 5) {
             player.sendMessage(ChatColor.RED + "用法: /vcam segment <段落索引> <过渡类型> <持续时间(秒)> <预设名称>");
-            player.sendMessage(ChatColor.GRAY + "过渡类型: linear, ease_in_out, ease_in, ease_out, bounce, elastic, smooth");
+            player.sendMessage(ChatColor.GRAY + "过渡类型: linear, ease_in_out, ease_in, ease_out, bounce, elastic, smooth, cubic-bezier(x1,y1,x2,y2)");
             return;
         }
         
@@ -292,11 +320,10 @@ public class CameraCommand implements CommandExecutor {
             int segmentIndex = Integer.parseInt(args[1]);
             
             // 解析过渡类型
-            TransitionType transitionType;
-            try {
-                transitionType = TransitionType.valueOf(args[2].toUpperCase());
-            } catch (IllegalArgumentException e) {
-                player.sendMessage(ChatColor.RED + "无效的过渡类型！可用类型: linear, ease_in_out, ease_in, ease_out, bounce, elastic, smooth");
+            Easing easing = Easing.parse(args[2]);
+            if (easing == null) {
+                player.sendMessage(ChatColor.RED + "无效的过渡类型！可用类型: linear, ease_in_out, ease_in, ease_out, bounce, elastic, smooth, cubic-bezier(x1,y1,x2,y2)");
+                player.sendMessage(ChatColor.GRAY + "cubic-bezier的x1和x2必须在0到1之间，参数之间不要有空格");
                 return;
             }
             
@@ -323,18 +350,201 @@ public class CameraCommand implements CommandExecutor {
             long durationMs = (long) (durationSeconds * 1000);
             
             // 设置段落信息
-            preset.setSegmentInfo(segmentIndex, transitionType, durationMs);
+            preset.setSegmentInfo(segmentIndex, easing, durationMs);
             
             // 保存到配置文件
             cameraManager.savePresetToFile(presetName, preset);
             
             player.sendMessage(ChatColor.GREEN + "已更新预设 '" + presetName + "' 的段落 " + segmentIndex + 
-                              "，过渡类型: " + transitionType + "，持续时间: " + durationSeconds + "秒");
+                              "，过渡类型: " + easing.serialize() + "，持续时间: " + durationSeconds + "秒");
         } catch (NumberFormatException e) {
             player.sendMessage(ChatColor.RED + "无效的数字参数！请检查段落索引和持续时间。");
         }
     }
 
+    /**
+     * 处理路径模式命令
+     * /vcam path <预设名称> <linear|catmull_rom>
+     */
+    private void handlePathMode(Player player, String[] args) {
+        if (!player.hasPermission("virtualcamera.preset.edit")) {
+            player.sendMessage(ChatColor.RED + "你没有权限编辑预设！");
+            return;
+        }
+        
+        if (args.length < 3) {
+            player.sendMessage(ChatColor.RED + "用法: /vcam path <预设名称> <linear|catmull_rom>");
+            return;
+        }
+        
+        String presetName = args[1];
+        CameraPreset preset = plugin.getPresetManager().getPreset(presetName);
+        if (preset == null) {
+            preset = cameraManager.getAllPresets().get(presetName);
+        }
+        if (preset == null) {
+            player.sendMessage(ChatColor.RED + "预设 '" + presetName + "' 不存在！");
+            return;
+        }
+        
+        PathMode pathMode;
+        try {
+            pathMode = PathMode.valueOf(args[2].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            player.sendMessage(ChatColor.RED + "无效的路径模式！可用模式: linear, catmull_rom");
+            return;
+        }
+        
+        preset.setPathMode(pathMode);
+        cameraManager.savePresetToFile(presetName, preset);
+        
+        player.sendMessage(ChatColor.GREEN + "已将预设 '" + presetName + "' 的路径模式设置为: " + pathMode);
+    }
+
+    /**
+     * 处理暂停动画命令
+     */
+    private void handlePause(Player player) {
+        if (!player.hasPermission("virtualcamera.use")) {
+            player.sendMessage(ChatColor.RED + "你没有权限使用此命令！");
+            return;
+        }
+        
+        CameraSession session = sessionManager.getSession(player);
+        if (session.pauseAnimation()) {
+            player.sendMessage(ChatColor.GREEN + "已暂停动画。使用 /vcam resume 继续。");
+        } else {
+            player.sendMessage(ChatColor.RED + "当前没有正在播放的动画！");
+        }
+    }
+
+    /**
+     * 处理继续播放命令
+     */
+    private void handleResume(Player player) {
+        if (!player.hasPermission("virtualcamera.use")) {
+            player.sendMessage(ChatColor.RED + "你没有权限使用此命令！");
+            return;
+        }
+        
+        CameraSession session = sessionManager.getSession(player);
+        if (session.resumeAnimation()) {
+            player.sendMessage(ChatColor.GREEN + "已继续播放动画。");
+        } else {
+            player.sendMessage(ChatColor.RED + "当前没有正在播放的动画！");
+        }
+    }
+
+    /**
+     * 处理跳转命令
+     * /vcam seek <时间(秒)>
+     */
+    private void handleSeek(Player player, String[] args) {
+        if (!player.hasPermission("virtualcamera.use")) {
+            player.sendMessage(ChatColor.RED + "你没有权限使用此命令！");
+            return;
+        }
+        
+        if (args.length < 2) {
+            player.sendMessage(ChatColor.RED + "用法: /vcam seek <时间(秒)>");
+            return;
+        }
+        
+        double seconds;
+        try {
+            seconds = Double.parseDouble(args[1]);
+        } catch (NumberFormatException e) {
+            player.sendMessage(ChatColor.RED + "无效的时间！");
+            return;
+        }
+        if (seconds < 0) {
+            player.sendMessage(ChatColor.RED + "时间不能为负数！");
+            return;
+        }
+        
+        CameraSession session = sessionManager.getSession(player);
+        if (session.seekAnimation((long) (seconds * 1000))) {
+            player.sendMessage(ChatColor.GREEN + "已跳转到 " + seconds + " 秒。");
+        } else {
+            player.sendMessage(ChatColor.RED + "当前没有正在播放的动画！");
+        }
+    }
+
+    /**
+     * 处理数据包统计命令
+     * /vcam stats
+     */
+    private void handleStats(Player player) {
+        if (!player.hasPermission("virtualcamera.use")) {
+            player.sendMessage(ChatColor.RED + "你没有权限使用此命令！");
+            return;
+        }
+        
+        if (plugin.getProtocolCameraController() == null) {
+            player.sendMessage(ChatColor.RED + "ProtocolLib摄像机未启用！");
+            return;
+        }
+        
+        CameraPacketStats stats = plugin.getProtocolCameraController().getPacketStats();
+        long sent = stats.getSent();
+        long suppressed = stats.getSuppressed();
+        long total = sent + suppressed;
+        player.sendMessage(ChatColor.GOLD + "=== 摄像机数据包统计 ===");
+        player.sendMessage(ChatColor.YELLOW + "已发送: " + ChatColor.WHITE + sent +
+                          " (传送 " + stats.getTeleports() + ", 相对移动 " + stats.getRelativeMoves() + ")");
+        player.sendMessage(ChatColor.YELLOW + "已省略: " + ChatColor.WHITE + suppressed +
+                          (total > 0 ? String.format(" (%.1f%%)", suppressed * 100.0 / total) : ""));
+    }
+
+    /**
+     * 处理路径简化命令
+     * /vcam simplify <预设名称> [坐标容差] [角度容差]
+     */
+    private void handleSimplify(Player player, String[] args) {
+        if (!player.hasPermission("virtualcamera.preset.edit")) {
+            player.sendMessage(ChatColor.RED + "你没有权限编辑预设！");
+            return;
+        }
+        
+        if (args.length < 2) {
+            player.sendMessage(ChatColor.RED + "用法: /vcam simplify <预设名称> [坐标容差] [角度容差]");
+            return;
+        }
+        
+        String presetName = args[1];
+        CameraPreset preset = plugin.getPresetManager().getPreset(presetName);
+        if (preset == null) {
+            preset = cameraManager.getAllPresets().get(presetName);
+        }
+        if (preset == null) {
+            player.sendMessage(ChatColor.RED + "预设 '" + presetName + "' 不存在！");
+            return;
+        }
+        
+        double positionTolerance;
+        double angleTolerance;
+        try {
+            positionTolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.05;
+            angleTolerance = args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+        } catch (NumberFormatException e) {
+            player.sendMessage(ChatColor.RED + "无效的容差数值！");
+            return;
+        }
+        if (positionTolerance < 0 || angleTolerance < 0) {
+            player.sendMessage(ChatColor.RED + "容差不能为负数！");
+            return;
+        }
+        
+        int before = preset.getLocationCount();
+        int removed = PathSimplifier.simplify(preset, positionTolerance, angleTolerance);
+        if (removed > 0) {
+            cameraManager.savePresetToFile(presetName, preset);
+        }
+        
+        player.sendMessage(ChatColor.GREEN + "已简化预设 '" + presetName + "'，移除了 " + removed + " 个路径点 (" +
+                          before + " -> " + preset.getLocationCount() + ")");
+    }
+
     /**
      * 处理进入相机模式命令
      */
@@ -521,6 +731,12 @@ public class CameraCommand implements CommandExecutor {
         player.sendMessage(ChatColor.YELLOW + "/vcam addpoint [持续时间]" + ChatColor.WHITE + " - 添加路径点");
         player.sendMessage(ChatColor.YELLOW + "/vcam finish" + ChatColor.WHITE + " - 完成路径预设创建");
         player.sendMessage(ChatColor.YELLOW + "/vcam segment <索引> <类型> <时间> <预设>" + ChatColor.WHITE + " - 设置路径段落");
+        player.sendMessage(ChatColor.YELLOW + "/vcam path <预设> <模式>" + ChatColor.WHITE + " - 设置路径模式(直线/样条)");
+        player.sendMessage(ChatColor.YELLOW + "/vcam simplify <预设> [坐标容差] [角度容差]" + ChatColor.WHITE + " - 移除多余的路径点");
+        player.sendMessage(ChatColor.YELLOW + "/vcam pause" + ChatColor.WHITE + " - 暂停当前动画");
+        player.sendMessage(ChatColor.YELLOW + "/vcam resume" + ChatColor.WHITE + " - 继续播放暂停的动画");
+        player.sendMessage(ChatColor.YELLOW + "/vcam seek <秒>" + ChatColor.WHITE + " - 跳转到动画的指定时间");
+        player.sendMessage(ChatColor.YELLOW + "/vcam stats" + ChatColor.WHITE + " - 显示摄像机数据包统计");
         player.sendMessage(ChatColor.YELLOW + "/vcam random <操作>" + ChatColor.WHITE + " - 随机切换操作");
         player.sendMessage(ChatColor.YELLOW + "/vcam help" + ChatColor.WHITE + " - 显示此帮助");
         player.sendMessage(ChatColor.GOLD + "========================");
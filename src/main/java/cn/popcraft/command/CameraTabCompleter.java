@@ -3,6 +3,7 @@ package cn.popcraft.command;
 import cn.popcraft.manager.CameraManager;
 import cn.popcraft.model.CameraPreset;
 import cn.popcraft.model.CameraSequence;
+import cn.popcraft.model.PathMode;
 import cn.popcraft.model.TransitionType;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -22,7 +23,7 @@ import java.util.stream.Collectors;
 public class CameraTabCompleter implements TabCompleter {
     private final CameraManager cameraManager;
     private final List<String> MAIN_COMMANDS = Arrays.asList(
-        "enter", "exit", "save", "load", "delete", "list", "play", "stop", "help", "create", "addpoint", "finish", "segment", "random", "playpreset"
+        "enter", "exit", "save", "load", "delete", "list", "play", "stop", "help", "create", "addpoint", "finish", "segment", "random", "playpreset", "path", "simplify", "pause", "resume", "seek", "stats"
     );
     
     private final List<String> RANDOM_SUBCOMMANDS = Arrays.asList(
@@ -79,6 +80,8 @@ public class CameraTabCompleter implements TabCompleter {
                     break;
                     
                 case "segment":
+                case "path":
+                case "simplify":
                     // 补全预设名称
                     if (sender.hasPermission("virtualcamera.preset.edit")) {
                         Map<String, CameraPreset> presets = cameraManager.getAllPresets();
@@ -107,7 +110,7 @@ public class CameraTabCompleter implements TabCompleter {
                         CameraPreset preset = cameraManager.getAllPresets().get(presetName);
                         if (preset != null) {
                             // 添加段落索引建议
-                            for (int i = 0; i < Math.max(1, preset.getLocations().size() - 1); i++) {
+                            for (int i = 0; i < Math.max(1, preset.getLocationCount() - 1); i++) {
                                 completions.add(String.valueOf(i));
                             }
                         } else {
@@ -120,6 +123,17 @@ public class CameraTabCompleter implements TabCompleter {
                     }
                     break;
                     
+                case "path":
+                    // 补全路径模式
+                    if (sender.hasPermission("virtualcamera.preset.edit")) {
+                        List<String> pathModes = new ArrayList<>();
+                        for (PathMode mode : PathMode.values()) {
+                            pathModes.add(mode.name().toLowerCase());
+                        }
+                        StringUtil.copyPartialMatches(args[2], pathModes, completions);
+                    }
+                    break;
+                    
                 case "random":
                     switch (args[1].toLowerCase()) {
                         case "add":
@@ -144,6 +158,7 @@ public class CameraTabCompleter implements TabCompleter {
                         for (TransitionType type : TransitionType.values()) {
                             transitionTypes.add(type.name());
                         }
+                        transitionTypes.add("cubic-bezier(");
                         StringUtil.copyPartialMatches(args[3], transitionTypes, completions);
                     }
                     break;
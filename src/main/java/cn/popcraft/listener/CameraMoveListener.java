@@ -0,0 +1,58 @@
+package cn.popcraft.listener;
+
+import cn.popcraft.session.CameraSession;
+import cn.popcraft.session.SessionManager;
+import org.bukkit.Location;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+/**
+ * 相机模式的移动事件监听器
+ * 由会话管理器在有玩家处于相机模式时注册、没有时注销，其余时间移动事件不经过本插件
+ * 每个事件只查找一次处于相机模式的会话，相机直接从事件的位置复制数值，不创建新的位置对象
+ */
+public class CameraMoveListener implements Listener {
+    private final SessionManager sessionManager;
+
+    public CameraMoveListener(SessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+    }
+
+    /**
+     * 处理玩家移动事件
+     */
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        CameraSession session = sessionManager.getActiveSession(event.getPlayer());
+        if (session != null) {
+            updateCamera(session, event.getTo());
+        }
+    }
+
+    /**
+     * 处理玩家传送事件
+     */
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        CameraSession session = sessionManager.getActiveSession(event.getPlayer());
+        if (session != null) {
+            updateCamera(session, event.getTo());
+        }
+    }
+
+    /**
+     * 用玩家的新位置更新相机，插件触发的移动会被忽略
+     */
+    private void updateCamera(CameraSession session, Location to) {
+        if (session.isIgnoreNextMove()) {
+            session.setIgnoreNextMove(false);
+            return;
+        }
+        if (to != null) {
+            session.getActiveCamera().updateFromLocation(to);
+        }
+    }
+}
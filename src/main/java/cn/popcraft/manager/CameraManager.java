@@ -2,17 +2,23 @@ package cn.popcraft.manager;
 
 import cn.popcraft.VirtualCamera;
 import cn.popcraft.model.CameraPreset;
+import cn.popcraft.model.Easing;
+import cn.popcraft.model.KeyframeTrack;
+import cn.popcraft.model.PathMode;
 import cn.popcraft.model.TransitionType;
 import cn.popcraft.session.CameraSession;
 import cn.popcraft.session.SessionManager;
-import cn.popcraft.util.Timeline;
+import cn.popcraft.util.CompiledTimeline;
+import cn.popcraft.util.FrameBakery;
+import cn.popcraft.util.PathSimplifier;
+import cn.popcraft.util.TimelineCache;
+import cn.popcraft.util.TimingWheel;
 import cn.popcraft.model.Camera;
 import cn.popcraft.model.CameraSequence;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.configuration.ConfigurationSection;
@@ -37,11 +43,17 @@ public class CameraManager {
     // 存储所有预设
     private final Map<String, CameraPreset> presets = new ConcurrentHashMap<>();
     
+    // 预设的编译时间轴缓存
+    private final TimelineCache timelineCache = new TimelineCache();
+    
+    // 常用预设的帧烘焙器
+    private final FrameBakery frameBakery;
+    
     // 存储所有序列
     private final Map<String, CameraSequence> sequences = new ConcurrentHashMap<>();
     
     // 存储正在播放序列的玩家任务
-    private final Map<UUID, BukkitTask> sequenceTasks = new HashMap<>();
+    private final Map<UUID, TimingWheel.TimerGroup> sequenceTasks = new HashMap<>();
 
     /**
      * 构造函数
@@ -52,6 +64,14 @@ public class CameraManager {
         this.plugin = plugin;
         this.sessionManager = sessionManager;
         
+        FileConfiguration config = plugin.getPlugin().getConfig();
+        this.frameBakery = new FrameBakery(
+            plugin.getPlugin(),
+            config.getBoolean("settings.frame_baking.enabled", false),
+            config.getInt("settings.frame_baking.frame_rate", 20),
+            config.getLong("settings.frame_baking.memory_budget_kb", 16384) * 1024L
+        );
+        
         // 从配置文件加载预设和序列
         loadFromConfig();
         
@@ -70,10 +90,10 @@ public class CameraManager {
      */
     public boolean switchToPreset(Player player, String presetName) {
         CameraPreset preset = plugin.getPresetManager().getPreset(presetName);
-        if (preset == null || preset.getLocations().isEmpty()) {
+        if (preset == null || preset.getLocationCount() == 0) {
             // 尝试从CameraManager中获取预设
             preset = presets.get(presetName);
-            if (preset == null || preset.getLocations().isEmpty()) {
+            if (preset == null || preset.getLocationCount() == 0) {
                 player.sendMessage(ChatColor.RED + ChatColor.translateAlternateColorCodes('&', "找不到预设: " + presetName));
                 return false;
             }
@@ -86,51 +106,17 @@ public class CameraManager {
             enterCameraMode(player);
         }
         
-        // 构建时间轴
-        Timeline timeline = new Timeline();
-        
-        // 添加路径点(使用玩家当前世界)
-        for (Location loc : preset.getLocations()) {
-            Location newLoc = loc.clone();
-            newLoc.setWorld(player.getWorld());
-            timeline.addKeyframe(newLoc);
-        }
-        
-        // 设置每个段落的过渡类型和持续时间
-        for (int i = 0; i < preset.getSegmentInfos().size(); i++) {
-            CameraPreset.SegmentInfo segmentInfo = preset.getSegmentInfos().get(i);
-            timeline.setSegmentTransition(i, segmentInfo.getTransitionType(), segmentInfo.getDuration());
-        }
-        
-        // 添加文本动作
-        for (CameraPreset.TextAction text : preset.getTexts()) {
-            timeline.addTextAction(text.getDelay(), text);
-        }
-        
-        // 添加命令动作
-        for (CameraPreset.CommandAction cmd : preset.getCommands()) {
-            timeline.addCommandAction(cmd.getDelay(), cmd);
-        }
-        
-        // 设置时间轴并启动动画
-        session.setTimeline(timeline);
+        // 获取缓存的编译时间轴(与世界无关)，播放时再绑定玩家当前世界
+        CompiledTimeline compiledTimeline = timelineCache.get(presetName, preset);
+        frameBakery.use(compiledTimeline);
+        session.setTimeline(compiledTimeline);
         
         // 使用ProtocolLib摄像机控制器播放动画（如果可用）
         if (plugin instanceof cn.popcraft.VirtualCameraPlugin) {
             cn.popcraft.VirtualCameraPlugin vcPlugin = (cn.popcraft.VirtualCameraPlugin) plugin;
             if (vcPlugin.getProtocolCameraController() != null) {
-                // 计算总持续时间
-                long totalDuration = 0;
-                for (CameraPreset.SegmentInfo segmentInfo : preset.getSegmentInfos()) {
-                    totalDuration += segmentInfo.getDuration();
-                }
-                
-                // 如果没有段落信息，则使用默认时间
-                if (totalDuration == 0 && preset.getLocationCount() > 1) {
-                    totalDuration = (preset.getLocationCount() - 1) * 3000; // 默认每段3秒
-                }
-                
-                session.playProtocolCameraAnimation(vcPlugin, timeline, totalDuration);
+                // 总持续时间包含路径以及最后一个文本和命令动作
+                session.playProtocolCameraAnimation(vcPlugin, compiledTimeline, compiledTimeline.getTotalDuration());
             } else {
                 // 回退到原来的实现
                 session.startAnimation();
@@ -144,157 +130,6 @@ public class CameraManager {
         return true;
     }
 
-    /**
-     * 调度预设命令
-     * @param player 玩家
-     * @param preset 相机预设
-     */
-    private void scheduleCommands(Player player, CameraPreset preset) {
-        for (CameraPreset.CommandAction cmd : preset.getCommands()) {
-            long delayMs = cmd.getDelay();
-            long ticks = delayMs / 50;
-            long safeTicks = ticks;
-            if (safeTicks <= Integer.MAX_VALUE) {
-                Bukkit.getScheduler().runTaskLater(
-                    plugin.getPlugin(),
-                    () -> Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd.getCommand()),
-                    safeTicks
-                );
-            } else {
-                // 对于超大延迟，分段执行
-                Bukkit.getScheduler().runTaskLater(
-                    plugin.getPlugin(),
-                    () -> scheduleCommandWithDelay(cmd.getCommand(), safeTicks - Integer.MAX_VALUE),
-                    Integer.MAX_VALUE
-                );
-            }
-        }
-    }
-    
-    /**
-     * 处理超大延迟的命令执行
-     * @param command 要执行的命令
-     * @param remainingTicks 剩余的tick数
-     */
-    private void scheduleCommandWithDelay(String command, long remainingTicks) {
-        if (remainingTicks <= Integer.MAX_VALUE) {
-            Bukkit.getScheduler().runTaskLater(
-                plugin.getPlugin(),
-                () -> Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command),
-                remainingTicks
-            );
-        } else {
-            // 继续分段执行
-            Bukkit.getScheduler().runTaskLater(
-                plugin.getPlugin(),
-                () -> scheduleCommandWithDelay(command, remainingTicks - Integer.MAX_VALUE),
-                Integer.MAX_VALUE
-            );
-        }
-    }
-
-    /**
-     * 调度预设文本
-     * @param player 玩家
-     * @param preset 相机预设
-     */
-    private void scheduleTexts(Player player, CameraPreset preset) {
-        for (CameraPreset.TextAction text : preset.getTexts()) {
-            long delayMs = text.getDelay();
-            long ticks = delayMs / 50;
-            long safeTicks = ticks;
-            
-            if (safeTicks <= Integer.MAX_VALUE) {
-                Bukkit.getScheduler().runTaskLater(
-                    plugin.getPlugin(),
-                    () -> scheduleTextDisplay(player, text),
-                    safeTicks
-                );
-            } else {
-                // 对于超大延迟，分段执行
-                Bukkit.getScheduler().runTaskLater(
-                    plugin.getPlugin(),
-                    () -> scheduleTextWithDelay(player, text, safeTicks - Integer.MAX_VALUE),
-                    Integer.MAX_VALUE
-                );
-            }
-        }
-    }
-    
-    /**
-     * 处理超大延迟的文本显示
-     * @param player 玩家
-     * @param text 文本动作
-     * @param remainingTicks 剩余的tick数
-     */
-    private void scheduleTextWithDelay(Player player, CameraPreset.TextAction text, long remainingTicks) {
-        if (remainingTicks <= Integer.MAX_VALUE) {
-            Bukkit.getScheduler().runTaskLater(
-                plugin.getPlugin(),
-                () -> scheduleTextDisplay(player, text),
-                remainingTicks
-            );
-        } else {
-            // 继续分段执行
-            Bukkit.getScheduler().runTaskLater(
-                plugin.getPlugin(),
-                () -> scheduleTextWithDelay(player, text, remainingTicks - Integer.MAX_VALUE),
-                Integer.MAX_VALUE
-            );
-        }
-    }
-    
-    /**
-     * 显示文本并处理持续时间
-     * @param player 玩家
-     * @param text 文本动作
-     */
-    private void scheduleTextDisplay(Player player, CameraPreset.TextAction text) {
-        player.sendActionBar(org.bukkit.ChatColor.translateAlternateColorCodes('&', text.getText()));
-        // 如果设置了持续时间，调度文本消失
-        if (text.getDuration() > 0) {
-            long durationTicks = text.getDuration() / 50;
-            long safeDurationTicks = durationTicks;
-            
-            if (safeDurationTicks <= Integer.MAX_VALUE) {
-                Bukkit.getScheduler().runTaskLater(
-                    plugin.getPlugin(),
-                    () -> player.sendActionBar(""),
-                    safeDurationTicks
-                );
-            } else {
-                // 对于超大持续时间，分段执行
-                Bukkit.getScheduler().runTaskLater(
-                    plugin.getPlugin(),
-                    () -> scheduleClearActionBar(player, safeDurationTicks - Integer.MAX_VALUE),
-                    Integer.MAX_VALUE
-                );
-            }
-        }
-    }
-    
-    /**
-     * 处理超大延迟的清除动作栏
-     * @param player 玩家
-     * @param remainingTicks 剩余的tick数
-     */
-    private void scheduleClearActionBar(Player player, long remainingTicks) {
-        if (remainingTicks <= Integer.MAX_VALUE) {
-            Bukkit.getScheduler().runTaskLater(
-                plugin.getPlugin(),
-                () -> player.sendActionBar(""),
-                remainingTicks
-            );
-        } else {
-            // 继续分段执行
-            Bukkit.getScheduler().runTaskLater(
-                plugin.getPlugin(),
-                () -> scheduleClearActionBar(player, remainingTicks - Integer.MAX_VALUE),
-                Integer.MAX_VALUE
-            );
-        }
-    }
-
     /**
      * 从配置文件加载预设和序列
      */
@@ -312,6 +147,7 @@ public class CameraManager {
                     // 加载相机类型
                     CameraPreset.CameraType type = CameraPreset.CameraType.valueOf(presetSection.getString("type", "NORMAL"));
                     preset.setType(type);
+                    preset.setPathMode(parsePathMode(presetSection.getString("path_mode")));
                     
                     // 加载位置点
                     ConfigurationSection locationsSection = presetSection.getConfigurationSection("locations");
@@ -324,9 +160,9 @@ public class CameraManager {
                                 double z = locSection.getDouble("z");
                                 float yaw = (float) locSection.getDouble("yaw");
                                 float pitch = (float) locSection.getDouble("pitch");
+                                float roll = (float) locSection.getDouble("roll", 0.0);
                                 
-                                Location loc = new Location(null, x, y, z, yaw, pitch);
-                                preset.addLocation(loc);
+                                preset.addLocation(x, y, z, yaw, pitch, roll);
                             }
                         }
                     }
@@ -583,10 +419,69 @@ public class CameraManager {
 
     /**
      * 保存预设到单独的YML文件
+     * 启用保存时简化路径时，先保存原路径，之后在异步线程中简化，完成后替换路径并再次保存
      * @param presetName 预设名称
      * @param preset 预设对象
      */
     public void savePresetToFile(String presetName, CameraPreset preset) {
+        // 预设内容可能被直接修改过，保存时丢弃旧的编译结果
+        timelineCache.invalidate(presetName);
+        writePresetFile(presetName, preset);
+        
+        FileConfiguration config = plugin.getPlugin().getConfig();
+        if (config.getBoolean("settings.simplify_on_save.enabled", false)) {
+            simplifyAsync(presetName, preset,
+                config.getDouble("settings.simplify_on_save.position_tolerance", 0.05),
+                config.getDouble("settings.simplify_on_save.angle_tolerance", 1.0));
+        }
+    }
+    
+    /**
+     * 在异步线程中简化预设路径的副本，完成后回到主线程替换路径并保存
+     * 简化期间预设被修改或删除时放弃结果
+     */
+    private void simplifyAsync(String presetName, CameraPreset preset, double positionTolerance, double angleTolerance) {
+        if (preset.getKeyframes().size() < 3) {
+            return;
+        }
+        
+        // 在主线程复制路径，异步线程只访问副本
+        CameraPreset copy = new CameraPreset(presetName);
+        copy.setPathMode(preset.getPathMode());
+        List<CameraPreset.SegmentInfo> segments = new ArrayList<>();
+        for (CameraPreset.SegmentInfo segment : preset.getSegmentInfos()) {
+            segments.add(new CameraPreset.SegmentInfo(segment.getEasing(), segment.getDuration()));
+        }
+        copy.setPath(preset.getKeyframes(), segments);
+        int version = preset.getVersion();
+        
+        Bukkit.getScheduler().runTaskAsynchronously(plugin.getPlugin(), () -> {
+            int removed;
+            try {
+                removed = PathSimplifier.simplify(copy, positionTolerance, angleTolerance);
+            } catch (Exception e) {
+                plugin.getPlugin().getLogger().severe("简化预设 " + presetName + " 的路径失败: " + e.getMessage());
+                return;
+            }
+            if (removed == 0) {
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin.getPlugin(), () -> {
+                if (preset.getVersion() != version || presets.get(presetName) != preset) {
+                    return;
+                }
+                preset.setPath(copy.getKeyframes(), copy.getSegmentInfos());
+                timelineCache.invalidate(presetName);
+                writePresetFile(presetName, preset);
+                plugin.getPlugin().getLogger().info("预设 " + presetName + " 保存时简化路径，移除了 " + removed + " 个路径点");
+            });
+        });
+    }
+    
+    /**
+     * 把预设写入文件
+     */
+    private void writePresetFile(String presetName, CameraPreset preset) {
         try {
             File presetsDir = new File(plugin.getPlugin().getDataFolder(), "presets");
             if (!presetsDir.exists()) {
@@ -601,16 +496,21 @@ public class CameraManager {
             
             // 保存预设数据 (使用扁平格式，符合README中的示例)
             presetConfig.set("type", preset.getType().name());
+            presetConfig.set("path_mode", preset.getPathMode() != PathMode.LINEAR ? preset.getPathMode().name() : null);
             
             // 保存位置点 (使用列表格式)
             List<Map<String, Object>> locations = new ArrayList<>();
-            for (Location loc : preset.getLocations()) {
+            KeyframeTrack keyframes = preset.getKeyframes();
+            for (int i = 0; i < keyframes.size(); i++) {
                 Map<String, Object> locMap = new HashMap<>();
-                locMap.put("x", loc.getX());
-                locMap.put("y", loc.getY());
-                locMap.put("z", loc.getZ());
-                locMap.put("yaw", loc.getYaw());
-                locMap.put("pitch", loc.getPitch());
+                locMap.put("x", keyframes.getX(i));
+                locMap.put("y", keyframes.getY(i));
+                locMap.put("z", keyframes.getZ(i));
+                locMap.put("yaw", keyframes.getYaw(i));
+                locMap.put("pitch", keyframes.getPitch(i));
+                if (keyframes.getRoll(i) != 0.0f) {
+                    locMap.put("roll", keyframes.getRoll(i));
+                }
                 locations.add(locMap);
             }
             presetConfig.set("locations", locations);
@@ -621,7 +521,7 @@ public class CameraManager {
                 CameraPreset.SegmentInfo segmentInfo = preset.getSegmentInfos().get(i);
                 Map<String, Object> segmentMap = new HashMap<>();
                 segmentMap.put("index", i);
-                segmentMap.put("transition", segmentInfo.getTransitionType().name());
+                segmentMap.put("transition", segmentInfo.getEasing().serialize());
                 segmentMap.put("duration", segmentInfo.getDuration());
                 segments.add(segmentMap);
             }
@@ -686,6 +586,9 @@ public class CameraManager {
                 preset.setType(CameraPreset.CameraType.NORMAL);
             }
             
+            // 加载路径模式
+            preset.setPathMode(parsePathMode(presetConfig.getString("path_mode")));
+            
             // 加载位置点 (支持列表格式)
             List<Map<?, ?>> locationsList = presetConfig.getMapList("locations");
             if (locationsList != null) {
@@ -695,9 +598,11 @@ public class CameraManager {
                     double z = ((Number) locMap.get("z")).doubleValue();
                     float yaw = ((Number) locMap.get("yaw")).floatValue();
                     float pitch = ((Number) locMap.get("pitch")).floatValue();
+                    // 翻滚角为可选项，旧的预设文件没有这个键
+                    Object rollValue = locMap.get("roll");
+                    float roll = rollValue instanceof Number ? ((Number) rollValue).floatValue() : 0.0f;
                     
-                    Location loc = new Location(null, x, y, z, yaw, pitch);
-                    preset.addLocation(loc);
+                    preset.addLocation(x, y, z, yaw, pitch, roll);
                 }
             }
             
@@ -737,12 +642,9 @@ public class CameraManager {
                     long duration = ((Number) segmentMap.get("duration")).longValue();
                     
                     if (transitionStr != null) {
-                        try {
-                            TransitionType transitionType = TransitionType.valueOf(transitionStr);
-                            preset.setSegmentInfo(index, transitionType, duration);
-                        } catch (IllegalArgumentException e) {
-                            preset.setSegmentInfo(index, TransitionType.SMOOTH, duration);
-                        }
+                        // 支持过渡类型名称和 cubic-bezier(x1,y1,x2,y2)
+                        Easing easing = Easing.parse(transitionStr);
+                        preset.setSegmentInfo(index, easing != null ? easing : TransitionType.SMOOTH, duration);
                     }
                 }
             }
@@ -754,6 +656,22 @@ public class CameraManager {
         }
     }
 
+    /**
+     * 解析路径模式，无法识别时使用直线模式
+     * @param value 配置中的路径模式名称
+     * @return 路径模式
+     */
+    public static PathMode parsePathMode(String value) {
+        if (value == null) {
+            return PathMode.LINEAR;
+        }
+        try {
+            return PathMode.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return PathMode.LINEAR;
+        }
+    }
+
     /**
      * 加载所有预设文件
      */
@@ -807,34 +725,10 @@ public class CameraManager {
             enterCameraMode(player);
         }
         
-        // 构建时间轴
-        Timeline timeline = new Timeline();
-        
-        // 添加路径点(使用玩家当前世界)
-        for (Location loc : preset.getLocations()) {
-            Location newLoc = loc.clone();
-            newLoc.setWorld(player.getWorld());
-            timeline.addKeyframe(newLoc);
-        }
-        
-        // 设置每个段落的过渡类型和持续时间
-        for (int i = 0; i < preset.getSegmentInfos().size(); i++) {
-            CameraPreset.SegmentInfo segmentInfo = preset.getSegmentInfos().get(i);
-            timeline.setSegmentTransition(i, segmentInfo.getTransitionType(), segmentInfo.getDuration());
-        }
-        
-        // 添加文本动作
-        for (CameraPreset.TextAction text : preset.getTexts()) {
-            timeline.addTextAction(text.getDelay(), text);
-        }
-        
-        // 添加命令动作
-        for (CameraPreset.CommandAction cmd : preset.getCommands()) {
-            timeline.addCommandAction(cmd.getDelay(), cmd);
-        }
-        
-        // 设置时间轴并启动动画
-        session.setTimeline(timeline);
+        // 设置缓存的编译时间轴并启动动画
+        CompiledTimeline compiledTimeline = timelineCache.get(presetName, preset);
+        frameBakery.use(compiledTimeline);
+        session.setTimeline(compiledTimeline);
         session.startAnimation();
         
         return true;
@@ -853,6 +747,7 @@ public class CameraManager {
         
         // 从预设集合中移除
         presets.remove(presetName);
+        timelineCache.invalidate(presetName);
         
         // 从所有序列中移除包含此预设的条目
         for (CameraSequence sequence : sequences.values()) {
@@ -871,6 +766,22 @@ public class CameraManager {
         return true;
     }
 
+    /**
+     * 获取编译时间轴缓存
+     * @return 时间轴缓存
+     */
+    public TimelineCache getTimelineCache() {
+        return timelineCache;
+    }
+
+    /**
+     * 获取帧烘焙器
+     * @return 帧烘焙器
+     */
+    public FrameBakery getFrameBakery() {
+        return frameBakery;
+    }
+
     /**
      * 获取所有预设
      * @return 预设映射
@@ -917,58 +828,45 @@ public class CameraManager {
             enterCameraMode(player);
         }
         
-        // 创建序列播放任务
-        BukkitTask task = plugin.getPlugin().getServer().getScheduler().runTaskTimer((org.bukkit.plugin.Plugin)plugin, new Runnable() {
-            private int currentIndex = 0;
-            private long startTime = System.currentTimeMillis();
-            private CameraPreset currentPreset = null;
-            private long currentDuration = 0; // 当前预设的持续时间(毫秒)
-            
-            @Override
-            public void run() {
-                // 获取当前时间
-                long currentTime = System.currentTimeMillis();
-                
-                // 如果是第一次运行或者需要切换到下一个预设
-                if (currentPreset == null || 
-                    (currentTime - startTime) >= currentDuration) {
-                    
-                    // 更新开始时间
-                    startTime = currentTime;
-                    
-                    // 获取当前预设
-                    String presetName = sequence.getEntry(currentIndex).getPresetName();
-                    currentPreset = presets.get(presetName);
-                    
-                    // 设置当前预设的持续时间(转换为毫秒)
-                    currentDuration = (long) (sequence.getEntry(currentIndex).getDuration() * 1000);
-                    
-                    // 应用当前预设
-                    if (currentPreset != null) {
-                        switchToPreset(player, presetName);
-                    }
-                    
-                    // 移动到下一个预设
-                    currentIndex++;
-                    
-                    // 如果到达序列末尾
-                    if (currentIndex >= sequence.getEntryCount()) {
-                        // 如果循环播放，重置索引
-                        if (sequence.isLoop()) {
-                            currentIndex = 0;
-                        } else {
-                            // 否则停止序列
-                            stopSequence(player);
-                        }
-                    }
-                }
+        // 序列的每一步由时间轮在上一步的持续时间结束后调度
+        TimingWheel.TimerGroup group = new TimingWheel.TimerGroup();
+        sequenceTasks.put(player.getUniqueId(), group);
+        playSequenceEntry(player, sequence, 0, group);
+        
+        return true;
+    }
+
+    /**
+     * 播放序列中的一个预设，并调度下一个预设
+     * @param player 玩家
+     * @param sequence 序列
+     * @param index 预设索引
+     * @param group 序列的任务分组
+     */
+    private void playSequenceEntry(Player player, CameraSequence sequence, int index, TimingWheel.TimerGroup group) {
+        // 到达序列末尾
+        if (index >= sequence.getEntryCount()) {
+            if (!sequence.isLoop()) {
+                // 最后一个预设已经播放完毕
+                sequenceTasks.remove(player.getUniqueId(), group);
+                return;
             }
-        }, 0L, 1L); // 每tick运行一次
+            // 循环播放，重置索引
+            index = 0;
+        }
         
-        // 保存任务
-        sequenceTasks.put(player.getUniqueId(), task);
+        // 应用当前预设
+        String presetName = sequence.getEntry(index).getPresetName();
+        if (presets.get(presetName) != null) {
+            switchToPreset(player, presetName);
+        }
         
-        return true;
+        // 当前预设的持续时间(秒)转换为tick，向上取整
+        long durationMs = (long) (sequence.getEntry(index).getDuration() * 1000);
+        long delayTicks = (durationMs + 49) / 50;
+        int nextIndex = index + 1;
+        plugin.getTickDriver().schedule(delayTicks,
+            () -> playSequenceEntry(player, sequence, nextIndex, group), group);
     }
 
     /**
@@ -976,9 +874,9 @@ public class CameraManager {
      * @param player 玩家
      */
     public void stopSequence(Player player) {
-        BukkitTask task = sequenceTasks.remove(player.getUniqueId());
-        if (task != null) {
-            task.cancel();
+        TimingWheel.TimerGroup group = sequenceTasks.remove(player.getUniqueId());
+        if (group != null) {
+            plugin.getTickDriver().cancelAll(group);
         }
         // 停止当前动画
         CameraSession session = sessionManager.getSession(player);
@@ -990,11 +888,14 @@ public class CameraManager {
      */
     public void cleanup() {
         // 取消所有序列任务
-        for (BukkitTask task : sequenceTasks.values()) {
-            task.cancel();
+        for (TimingWheel.TimerGroup group : sequenceTasks.values()) {
+            plugin.getTickDriver().cancelAll(group);
         }
         sequenceTasks.clear();
         
+        // 释放烘焙的帧缓冲
+        frameBakery.clear();
+        
         // 保存配置
         saveToConfig();
     }
@@ -43,6 +43,9 @@ public class CameraPresetManager {
                     preset.setType(CameraPreset.CameraType.NORMAL);
                 }
                 
+                // 加载路径模式
+                preset.setPathMode(CameraManager.parsePathMode(presetSection.getString("path_mode")));
+                
                 // 加载位置点
                 ConfigurationSection locationsSection = presetSection.getConfigurationSection("locations");
                 if (locationsSection != null) {
@@ -54,9 +57,9 @@ public class CameraPresetManager {
                             double z = locSection.getDouble("z");
                             float yaw = (float) locSection.getDouble("yaw");
                             float pitch = (float) locSection.getDouble("pitch");
+                            float roll = (float) locSection.getDouble("roll", 0.0);
                             
-                            Location loc = new Location(null, x, y, z, yaw, pitch);
-                            preset.addLocation(loc);
+                            preset.addLocation(x, y, z, yaw, pitch, roll);
                         }
                     }
                 }
@@ -2,9 +2,8 @@ package cn.popcraft.manager;
 
 import cn.popcraft.VirtualCamera;
 import cn.popcraft.model.CameraPreset;
+import cn.popcraft.util.TimingWheel;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -17,7 +16,7 @@ import java.util.UUID;
 
 public class RandomSwitchController {
     private final VirtualCamera plugin;
-    private final Map<UUID, BukkitTask> activeTasks;
+    private final Map<UUID, TimingWheel.TimerGroup> activeTasks;
     private final Map<UUID, Set<String>> playerPresetPools;
     private final Map<UUID, Integer> switchIntervals;
     private final Random random;
@@ -67,24 +66,30 @@ public class RandomSwitchController {
 
         // 如果只有一个预设，不需要启动任务
         if (validPresets.size() > 1) {
-            BukkitTask task = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (!player.isOnline() || !playerPresetPools.containsKey(playerId)) {
-                        stopRandomSwitch(player);
-                        return;
-                    }
-
-                    String nextPreset = getRandomPreset(player);
-                    plugin.getCameraManager().switchToPreset(player, nextPreset);
-                }
-            }.runTaskTimer(plugin.getPlugin(), intervalTicks, intervalTicks);
-
-            activeTasks.put(playerId, task);
+            TimingWheel.TimerGroup group = new TimingWheel.TimerGroup();
+            activeTasks.put(playerId, group);
+            scheduleNext(player, group, intervalTicks);
         }
 
         return true;
     }
+
+    /**
+     * 在时间轮中调度下一次切换，每次切换后重新调度，代替重复执行的任务
+     */
+    private void scheduleNext(Player player, TimingWheel.TimerGroup group, int intervalTicks) {
+        UUID playerId = player.getUniqueId();
+        plugin.getTickDriver().schedule(intervalTicks, () -> {
+            if (!player.isOnline() || !playerPresetPools.containsKey(playerId)) {
+                stopRandomSwitch(player);
+                return;
+            }
+
+            String nextPreset = getRandomPreset(player);
+            plugin.getCameraManager().switchToPreset(player, nextPreset);
+            scheduleNext(player, group, intervalTicks);
+        }, group);
+    }
     
     /**
      * 开始随机切换预设（使用玩家预设池）
@@ -122,9 +127,9 @@ public class RandomSwitchController {
      */
     public void stopRandomSwitch(Player player) {
         UUID playerId = player.getUniqueId();
-        if (activeTasks.containsKey(playerId)) {
-            activeTasks.get(playerId).cancel();
-            activeTasks.remove(playerId);
+        TimingWheel.TimerGroup group = activeTasks.remove(playerId);
+        if (group != null) {
+            plugin.getTickDriver().cancelAll(group);
         }
         playerPresetPools.remove(playerId);
         switchIntervals.remove(playerId);
@@ -194,8 +199,8 @@ public class RandomSwitchController {
      * 清理所有随机切换
      */
     public void cleanupAllRandomSwitches() {
-        for (BukkitTask task : activeTasks.values()) {
-            task.cancel();
+        for (TimingWheel.TimerGroup group : activeTasks.values()) {
+            plugin.getTickDriver().cancelAll(group);
         }
         activeTasks.clear();
         playerPresetPools.clear();
@@ -2,9 +2,8 @@ package cn.popcraft.manager;
 
 import cn.popcraft.VirtualCamera;
 import cn.popcraft.model.CameraPreset;
+import cn.popcraft.util.TimingWheel;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -14,7 +13,7 @@ import java.util.UUID;
 
 public class TimedSequenceController {
     private final VirtualCamera plugin;
-    private final Map<UUID, BukkitTask> activeTasks;
+    private final Map<UUID, TimingWheel.TimerGroup> activeTasks;
     private final Map<UUID, List<String>> playerSequences;
     private final Map<UUID, Integer> currentIndexes;
     private final Map<UUID, Integer> delayTicks;
@@ -60,36 +59,42 @@ public class TimedSequenceController {
 
         // 如果只有一个预设，不需要启动任务
         if (presetNames.size() > 1) {
-            BukkitTask task = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (!player.isOnline() || !playerSequences.containsKey(playerId)) {
-                        stopSequence(player);
-                        return;
-                    }
-
-                    int nextIndex = (currentIndexes.get(playerId) + 1) % playerSequences.get(playerId).size();
-                    currentIndexes.put(playerId, nextIndex);
-                    String nextPreset = playerSequences.get(playerId).get(nextIndex);
-                    plugin.getCameraManager().switchToPreset(player, nextPreset);
-                }
-            }.runTaskTimer(plugin.getPlugin(), delayTicks, delayTicks);
-
-            activeTasks.put(playerId, task);
+            TimingWheel.TimerGroup group = new TimingWheel.TimerGroup();
+            activeTasks.put(playerId, group);
+            scheduleNext(player, group, delayTicks);
         }
 
         return true;
     }
 
+    /**
+     * 在时间轮中调度下一次切换，每次切换后重新调度，代替重复执行的任务
+     */
+    private void scheduleNext(Player player, TimingWheel.TimerGroup group, int delayTicks) {
+        UUID playerId = player.getUniqueId();
+        plugin.getTickDriver().schedule(delayTicks, () -> {
+            if (!player.isOnline() || !playerSequences.containsKey(playerId)) {
+                stopSequence(player);
+                return;
+            }
+
+            int nextIndex = (currentIndexes.get(playerId) + 1) % playerSequences.get(playerId).size();
+            currentIndexes.put(playerId, nextIndex);
+            String nextPreset = playerSequences.get(playerId).get(nextIndex);
+            plugin.getCameraManager().switchToPreset(player, nextPreset);
+            scheduleNext(player, group, delayTicks);
+        }, group);
+    }
+
     /**
      * 停止玩家的预设序列
      * @param player 玩家
      */
     public void stopSequence(Player player) {
         UUID playerId = player.getUniqueId();
-        if (activeTasks.containsKey(playerId)) {
-            activeTasks.get(playerId).cancel();
-            activeTasks.remove(playerId);
+        TimingWheel.TimerGroup group = activeTasks.remove(playerId);
+        if (group != null) {
+            plugin.getTickDriver().cancelAll(group);
         }
         playerSequences.remove(playerId);
         currentIndexes.remove(playerId);
@@ -144,8 +149,8 @@ public class TimedSequenceController {
      * 清理所有序列
      */
     public void cleanupAllSequences() {
-        for (BukkitTask task : activeTasks.values()) {
-            task.cancel();
+        for (TimingWheel.TimerGroup group : activeTasks.values()) {
+            plugin.getTickDriver().cancelAll(group);
         }
         activeTasks.clear();
         playerSequences.clear();
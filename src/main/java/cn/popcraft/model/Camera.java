@@ -33,12 +33,12 @@ public class Camera {
      * @param preset 预设
      */
     public Camera(CameraPreset preset) {
-        Location firstLoc = preset.getLocations().get(0);
-        this.x = firstLoc.getX();
-        this.y = firstLoc.getY();
-        this.z = firstLoc.getZ();
-        this.yaw = firstLoc.getYaw();
-        this.pitch = firstLoc.getPitch();
+        KeyframeTrack keyframes = preset.getKeyframes();
+        this.x = keyframes.getX(0);
+        this.y = keyframes.getY(0);
+        this.z = keyframes.getZ(0);
+        this.yaw = keyframes.getYaw(0);
+        this.pitch = keyframes.getPitch(0);
         this.type = preset.getType();
     }
 
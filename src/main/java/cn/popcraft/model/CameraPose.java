@@ -0,0 +1,230 @@
+package cn.popcraft.model;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * 可变的相机姿态，只保存坐标和视角的基本类型数值
+ * 用于每tick的采样热路径，由调用方持有并反复写入，避免每帧创建 {@link Location}
+ * 视角既可以直接以偏航/俯仰/翻滚角写入，也可以以四元数写入；
+ * 以四元数写入时，角度会在第一次读取时才换算(通常是编码数据包的时候)
+ */
+public class CameraPose {
+    private double x;
+    private double y;
+    private double z;
+    private float yaw;
+    private float pitch;
+    private float roll;
+
+    // 四元数形式的朝向 (w, x, y, z)
+    private double qw = 1.0;
+    private double qx;
+    private double qy;
+    private double qz;
+    private boolean anglesStale; // 四元数已更新但角度尚未换算
+
+    /**
+     * 创建一个位于原点的姿态
+     */
+    public CameraPose() {
+    }
+
+    /**
+     * 从位置创建姿态
+     * @param location 位置
+     */
+    public CameraPose(Location location) {
+        set(location);
+    }
+
+    /**
+     * 设置姿态的全部数值
+     * @param x X坐标
+     * @param y Y坐标
+     * @param z Z坐标
+     * @param yaw 偏航角
+     * @param pitch 俯仰角
+     */
+    public void set(double x, double y, double z, float yaw, float pitch) {
+        set(x, y, z, yaw, pitch, 0.0f);
+    }
+
+    /**
+     * 设置姿态的全部数值(包括翻滚角)
+     * @param x X坐标
+     * @param y Y坐标
+     * @param z Z坐标
+     * @param yaw 偏航角
+     * @param pitch 俯仰角
+     * @param roll 翻滚角
+     */
+    public void set(double x, double y, double z, float yaw, float pitch, float roll) {
+        setPosition(x, y, z);
+        setRotation(yaw, pitch, roll);
+    }
+
+    /**
+     * 只设置坐标
+     * @param x X坐标
+     * @param y Y坐标
+     * @param z Z坐标
+     */
+    public void setPosition(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * 只设置视角
+     * @param yaw 偏航角
+     * @param pitch 俯仰角
+     */
+    public void setRotation(float yaw, float pitch) {
+        setRotation(yaw, pitch, 0.0f);
+    }
+
+    /**
+     * 只设置视角(包括翻滚角)
+     * @param yaw 偏航角
+     * @param pitch 俯仰角
+     * @param roll 翻滚角
+     */
+    public void setRotation(float yaw, float pitch, float roll) {
+        this.yaw = yaw;
+        this.pitch = pitch;
+        this.roll = roll;
+        this.anglesStale = false;
+    }
+
+    /**
+     * 以单位四元数设置朝向，角度延迟到读取时换算
+     * 约定与Minecraft一致：偏航角0朝向+Z，俯仰角为正时向下看
+     * @param w 四元数w分量
+     * @param x 四元数x分量
+     * @param y 四元数y分量
+     * @param z 四元数z分量
+     */
+    public void setOrientation(double w, double x, double y, double z) {
+        this.qw = w;
+        this.qx = x;
+        this.qy = y;
+        this.qz = z;
+        this.anglesStale = true;
+    }
+
+    /**
+     * 从位置复制姿态
+     * @param location 位置
+     */
+    public void set(Location location) {
+        set(location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+    }
+
+    /**
+     * 从另一个姿态复制数值
+     * @param other 另一个姿态
+     */
+    public void set(CameraPose other) {
+        setPosition(other.x, other.y, other.z);
+        if (other.anglesStale) {
+            setOrientation(other.qw, other.qx, other.qy, other.qz);
+        } else {
+            setRotation(other.yaw, other.pitch, other.roll);
+        }
+    }
+
+    /**
+     * 将姿态写入已有的位置对象，不创建新对象
+     * @param location 目标位置
+     * @return 传入的位置对象
+     */
+    public Location applyTo(Location location) {
+        location.setX(x);
+        location.setY(y);
+        location.setZ(z);
+        location.setYaw(getYaw());
+        location.setPitch(getPitch());
+        return location;
+    }
+
+    /**
+     * 转换为新的位置对象
+     * @param world 世界
+     * @return 位置对象
+     */
+    public Location toLocation(World world) {
+        return new Location(world, x, y, z, getYaw(), getPitch());
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public float getYaw() {
+        resolveAngles();
+        return yaw;
+    }
+
+    public float getPitch() {
+        resolveAngles();
+        return pitch;
+    }
+
+    public float getRoll() {
+        resolveAngles();
+        return roll;
+    }
+
+    /**
+     * 将四元数换算为偏航/俯仰/翻滚角
+     * 旋转顺序为 偏航(绕Y) * 俯仰(绕X) * 翻滚(绕Z)
+     */
+    private void resolveAngles() {
+        if (!anglesStale) {
+            return;
+        }
+        anglesStale = false;
+
+        // 前方向 = q * (0,0,1)
+        double fx = 2 * (qx * qz + qw * qy);
+        double fy = 2 * (qy * qz - qw * qx);
+        double fz = 1 - 2 * (qx * qx + qy * qy);
+        double sinPitch = -fy;
+        if (sinPitch > 0.99999) {
+            // 垂直向下看时前方向无法确定偏航角，改用上方向
+            pitch = 90.0f;
+            yaw = (float) Math.toDegrees(Math.atan2(-2 * (qx * qy - qw * qz), 2 * (qy * qz + qw * qx)));
+            roll = 0.0f;
+            return;
+        }
+        if (sinPitch < -0.99999) {
+            pitch = -90.0f;
+            yaw = (float) Math.toDegrees(Math.atan2(2 * (qx * qy - qw * qz), -2 * (qy * qz + qw * qx)));
+            roll = 0.0f;
+            return;
+        }
+        pitch = (float) Math.toDegrees(Math.asin(sinPitch));
+        yaw = (float) Math.toDegrees(Math.atan2(-fx, fz));
+
+        // 右方向和上方向的Y分量决定翻滚角
+        double rightY = 2 * (qx * qy + qw * qz);
+        double upY = 1 - 2 * (qx * qx + qz * qz);
+        roll = (float) Math.toDegrees(Math.atan2(rightY, upY));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CameraPose{x=%s, y=%s, z=%s, yaw=%s, pitch=%s, roll=%s}",
+                x, y, z, getYaw(), getPitch(), getRoll());
+    }
+}
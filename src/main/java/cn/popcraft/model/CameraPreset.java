@@ -7,11 +7,13 @@ import java.util.List;
 
 public class CameraPreset {
     private final String name;
-    private final List<Location> locations = new ArrayList<>();
+    private final KeyframeTrack keyframes = new KeyframeTrack(); // 路径点，以基本类型数组保存
     private final List<CommandAction> commands = new ArrayList<>();
     private final List<TextAction> texts = new ArrayList<>();
     private final List<SegmentInfo> segmentInfos = new ArrayList<>(); // 每个段落的信息
     private CameraType type = CameraType.NORMAL;
+    private PathMode pathMode = PathMode.LINEAR; // 关键帧之间的路径模式
+    private volatile int version; // 每次修改递增，用于判断缓存的编译时间轴是否过期
 
     public CameraPreset(String name) {
         this.name = name;
@@ -24,23 +26,24 @@ public class CameraPreset {
     }
 
     /**
-     * 段落信息类，存储每个路径段落的过渡类型和持续时间
+     * 段落信息类，存储每个路径段落的缓动曲线和持续时间
+     * 缓动曲线可以是固定的 {@link TransitionType}，也可以是自定义的 {@link CubicBezierEasing}
      */
     public static class SegmentInfo {
-        private TransitionType transitionType;
+        private Easing easing;
         private long duration; // 毫秒
 
-        public SegmentInfo(TransitionType transitionType, long duration) {
-            this.transitionType = transitionType;
+        public SegmentInfo(Easing easing, long duration) {
+            this.easing = easing;
             this.duration = duration;
         }
 
-        public TransitionType getTransitionType() {
-            return transitionType;
+        public Easing getEasing() {
+            return easing;
         }
 
-        public void setTransitionType(TransitionType transitionType) {
-            this.transitionType = transitionType;
+        public void setEasing(Easing easing) {
+            this.easing = easing;
         }
 
         public long getDuration() {
@@ -108,15 +111,46 @@ public class CameraPreset {
         return name;
     }
 
+    /**
+     * 获取修改版本号，通过本类方法修改预设时递增
+     * 直接修改 {@link #getKeyframes()} 返回的轨道或段落信息对象后，需要调用 {@link #markModified()}
+     * @return 版本号
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * 标记预设已修改
+     */
+    public void markModified() {
+        version++;
+    }
+
+    /**
+     * 获取所有位置点，每次调用都会创建新的位置对象(世界为null)
+     */
     public List<Location> getLocations() {
-        return new ArrayList<>(locations);
+        return keyframes.toLocations(null);
+    }
+
+    /**
+     * 获取路径点轨道
+     * 返回的是内部轨道本身，用于免复制地读取路径点，调用方不应修改它
+     * @return 路径点轨道
+     */
+    public KeyframeTrack getKeyframes() {
+        return keyframes;
     }
 
     public void setLocations(List<Location> locations) {
-        this.locations.clear();
-        this.locations.addAll(locations);
+        this.keyframes.clear();
+        for (Location location : locations) {
+            this.keyframes.add(location);
+        }
         // 同步更新段落信息
         updateSegmentInfos();
+        markModified();
     }
 
     public List<CommandAction> getCommands() {
@@ -125,6 +159,7 @@ public class CameraPreset {
 
     public void addCommand(String command, long delay) {
         this.commands.add(new CommandAction(command, delay));
+        markModified();
     }
 
     public List<TextAction> getTexts() {
@@ -133,10 +168,12 @@ public class CameraPreset {
 
     public void addText(String text, long delay) {
         this.texts.add(new TextAction(text, delay));
+        markModified();
     }
 
     public void addText(String text, long delay, long duration) {
         this.texts.add(new TextAction(text, delay, duration));
+        markModified();
     }
 
     public CameraType getType() {
@@ -145,29 +182,57 @@ public class CameraPreset {
 
     public void setType(CameraType type) {
         this.type = type;
+        markModified();
+    }
+
+    public PathMode getPathMode() {
+        return pathMode;
+    }
+
+    public void setPathMode(PathMode pathMode) {
+        this.pathMode = pathMode != null ? pathMode : PathMode.LINEAR;
+        markModified();
     }
 
     /**
      * 验证预设是否有效
      */
     public boolean isValid() {
-        return !locations.isEmpty();
+        return !keyframes.isEmpty();
     }
 
     /**
-     * 添加多个位置点
+     * 添加位置点
      */
     public void addLocation(Location location) {
-        this.locations.add(location);
+        addLocation(location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+    }
+
+    /**
+     * 添加位置点
+     */
+    public void addLocation(double x, double y, double z, float yaw, float pitch) {
+        addLocation(x, y, z, yaw, pitch, 0.0f);
+    }
+
+    /**
+     * 添加带翻滚角的位置点
+     */
+    public void addLocation(double x, double y, double z, float yaw, float pitch, float roll) {
+        this.keyframes.add(x, y, z, yaw, pitch, roll);
         // 如果不是第一个点，添加默认段落信息
-        if (locations.size() > 1) {
+        if (keyframes.size() > 1) {
             segmentInfos.add(new SegmentInfo(TransitionType.SMOOTH, 3000)); // 默认3秒
         }
+        markModified();
     }
 
     public void addLocations(List<Location> locations) {
-        this.locations.addAll(locations);
+        for (Location location : locations) {
+            this.keyframes.add(location);
+        }
         updateSegmentInfos();
+        markModified();
     }
 
     /**
@@ -175,6 +240,7 @@ public class CameraPreset {
      */
     public void addCommands(List<CommandAction> commands) {
         this.commands.addAll(commands);
+        markModified();
     }
 
     /**
@@ -182,14 +248,30 @@ public class CameraPreset {
      */
     public void addTexts(List<TextAction> texts) {
         this.texts.addAll(texts);
+        markModified();
+    }
+
+    /**
+     * 替换全部路径点和段落信息
+     * @param keyframes 新的路径点
+     * @param segments 新的段落信息，数量应为路径点数量减一
+     */
+    public void setPath(KeyframeTrack keyframes, List<SegmentInfo> segments) {
+        this.keyframes.clear();
+        this.keyframes.addAll(keyframes);
+        this.segmentInfos.clear();
+        this.segmentInfos.addAll(segments);
+        updateSegmentInfos();
+        markModified();
     }
 
     /**
      * 清除所有位置点
      */
     public void clearLocations() {
-        this.locations.clear();
+        this.keyframes.clear();
         this.segmentInfos.clear();
+        markModified();
     }
 
     /**
@@ -197,6 +279,7 @@ public class CameraPreset {
      */
     public void clearCommands() {
         this.commands.clear();
+        markModified();
     }
 
     /**
@@ -204,27 +287,28 @@ public class CameraPreset {
      */
     public void clearTexts() {
         this.texts.clear();
+        markModified();
     }
 
     /**
      * 获取第一个位置点
      */
     public Location getFirstLocation() {
-        return locations.isEmpty() ? null : locations.get(0);
+        return keyframes.isEmpty() ? null : keyframes.toLocation(0, null);
     }
 
     /**
      * 获取最后一个位置点
      */
     public Location getLastLocation() {
-        return locations.isEmpty() ? null : locations.get(locations.size() - 1);
+        return keyframes.isEmpty() ? null : keyframes.toLocation(keyframes.size() - 1, null);
     }
 
     /**
      * 获取位置点数量
      */
     public int getLocationCount() {
-        return locations.size();
+        return keyframes.size();
     }
 
     /**
@@ -250,26 +334,27 @@ public class CameraPreset {
     }
     
     /**
-     * 设置段落的过渡类型和持续时间
+     * 设置段落的缓动曲线和持续时间
      * @param segmentIndex 段落索引
-     * @param transitionType 过渡类型
+     * @param easing 缓动曲线
      * @param duration 持续时间(毫秒)
      */
-    public void setSegmentInfo(int segmentIndex, TransitionType transitionType, long duration) {
+    public void setSegmentInfo(int segmentIndex, Easing easing, long duration) {
         if (segmentIndex >= 0 && segmentIndex < segmentInfos.size()) {
-            segmentInfos.get(segmentIndex).setTransitionType(transitionType);
+            segmentInfos.get(segmentIndex).setEasing(easing);
             segmentInfos.get(segmentIndex).setDuration(duration);
+            markModified();
         }
     }
     
     /**
-     * 获取指定段落的过渡类型
+     * 获取指定段落的缓动曲线
      * @param segmentIndex 段落索引
-     * @return 过渡类型
+     * @return 缓动曲线
      */
-    public TransitionType getSegmentTransitionType(int segmentIndex) {
+    public Easing getSegmentEasing(int segmentIndex) {
         if (segmentIndex >= 0 && segmentIndex < segmentInfos.size()) {
-            return segmentInfos.get(segmentIndex).getTransitionType();
+            return segmentInfos.get(segmentIndex).getEasing();
         }
         return TransitionType.SMOOTH; // 默认值
     }
@@ -291,12 +376,12 @@ public class CameraPreset {
      */
     private void updateSegmentInfos() {
         // 清除多余的段落信息
-        while (segmentInfos.size() >= locations.size()) {
+        while (!segmentInfos.isEmpty() && segmentInfos.size() >= keyframes.size()) {
             segmentInfos.remove(segmentInfos.size() - 1);
         }
         
         // 添加缺少的段落信息
-        while (segmentInfos.size() < locations.size() - 1) {
+        while (segmentInfos.size() < keyframes.size() - 1) {
             segmentInfos.add(new SegmentInfo(TransitionType.SMOOTH, 3000));
         }
     }
@@ -0,0 +1,267 @@
+package cn.popcraft.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CSS风格的三次贝塞尔缓动曲线 cubic-bezier(x1,y1,x2,y2)
+ * 曲线两端固定为(0,0)和(1,1)，x1和x2必须在[0,1]范围内
+ * 实例通过 {@link #of(double, double, double, double)} 获取，控制点相同的曲线共享同一个实例和查找表，
+ * 查找表在创建时用牛顿迭代(失败时回退到二分法)求解，之后每次采样的开销是常数
+ */
+public final class CubicBezierEasing implements Easing {
+    private static final String PREFIX = "cubic-bezier(";
+    private static final int NEWTON_ITERATIONS = 8;
+    private static final int BISECTION_ITERATIONS = 40;
+    private static final double EPSILON = 1e-7;
+
+    // 按控制点缓存的曲线实例，同一条曲线只构建一次查找表
+    private static final Map<Key, CubicBezierEasing> CACHE = new ConcurrentHashMap<>();
+
+    private final double x1;
+    private final double y1;
+    private final double x2;
+    private final double y2;
+    // 多项式系数 B(s) = ((a*s + b)*s + c)*s
+    private final double ax;
+    private final double bx;
+    private final double cx;
+    private final double ay;
+    private final double by;
+    private final double cy;
+    private final double[] lookupTable; // 以x等距采样的y值，共 LOOKUP_RESOLUTION + 1 个
+
+    private CubicBezierEasing(double x1, double y1, double x2, double y2) {
+        this.x1 = x1;
+        this.y1 = y1;
+        this.x2 = x2;
+        this.y2 = y2;
+        this.cx = 3 * x1;
+        this.bx = 3 * (x2 - x1) - cx;
+        this.ax = 1 - cx - bx;
+        this.cy = 3 * y1;
+        this.by = 3 * (y2 - y1) - cy;
+        this.ay = 1 - cy - by;
+
+        int resolution = TransitionType.LOOKUP_RESOLUTION;
+        this.lookupTable = new double[resolution + 1];
+        for (int i = 0; i <= resolution; i++) {
+            lookupTable[i] = calculateExact((double) i / resolution);
+        }
+    }
+
+    /**
+     * 获取指定控制点的曲线，控制点相同时返回缓存的实例
+     * @param x1 第一个控制点X，范围[0,1]
+     * @param y1 第一个控制点Y
+     * @param x2 第二个控制点X，范围[0,1]
+     * @param y2 第二个控制点Y
+     * @return 缓动曲线
+     * @throws IllegalArgumentException 控制点X超出范围时抛出
+     */
+    public static CubicBezierEasing of(double x1, double y1, double x2, double y2) {
+        if (!(x1 >= 0 && x1 <= 1 && x2 >= 0 && x2 <= 1)) {
+            throw new IllegalArgumentException("cubic-bezier的x1和x2必须在[0,1]范围内");
+        }
+        if (!Double.isFinite(y1) || !Double.isFinite(y2)) {
+            throw new IllegalArgumentException("cubic-bezier的y1和y2必须是有限数值");
+        }
+        return CACHE.computeIfAbsent(new Key(x1, y1, x2, y2), key -> new CubicBezierEasing(x1, y1, x2, y2));
+    }
+
+    /**
+     * 检查字符串是否为 cubic-bezier(...) 格式
+     * @param value 字符串
+     * @return 是否为cubic-bezier格式
+     */
+    public static boolean isCubicBezier(String value) {
+        return value.regionMatches(true, 0, PREFIX, 0, PREFIX.length()) && value.endsWith(")");
+    }
+
+    /**
+     * 解析 cubic-bezier(x1,y1,x2,y2) 字符串
+     * @param value 字符串
+     * @return 缓动曲线，格式错误或控制点超出范围时返回null
+     */
+    public static CubicBezierEasing parse(String value) {
+        if (!isCubicBezier(value)) {
+            return null;
+        }
+        String[] parts = value.substring(PREFIX.length(), value.length() - 1).split(",");
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            return of(
+                Double.parseDouble(parts[0].trim()),
+                Double.parseDouble(parts[1].trim()),
+                Double.parseDouble(parts[2].trim()),
+                Double.parseDouble(parts[3].trim())
+            );
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException 也是 IllegalArgumentException
+            return null;
+        }
+    }
+
+    /**
+     * 计算过渡进度，与 {@link TransitionType} 使用同一个查找表开关
+     * @param t 原始进度，范围[0,1]
+     * @return 调整后的进度
+     */
+    @Override
+    public double calculateProgress(double t) {
+        return TransitionType.isLookupEnabled() ? lookup(t) : calculateExact(t);
+    }
+
+    /**
+     * 使用求解器精确计算过渡进度
+     * @param t 原始进度，即曲线的X坐标
+     * @return 曲线在该X处的Y坐标
+     */
+    public double calculateExact(double t) {
+        if (t <= 0) {
+            return 0;
+        }
+        if (t >= 1) {
+            return 1;
+        }
+        return sampleY(solveParameter(t));
+    }
+
+    /**
+     * 使用查找表计算过渡进度
+     * @param t 原始进度，范围[0,1]
+     * @return 调整后的进度
+     */
+    public double lookup(double t) {
+        int resolution = TransitionType.LOOKUP_RESOLUTION;
+        if (t <= 0) {
+            return lookupTable[0];
+        }
+        if (t >= 1) {
+            return lookupTable[resolution];
+        }
+        double scaled = t * resolution;
+        int index = (int) scaled;
+        double fraction = scaled - index;
+        return lookupTable[index] + (lookupTable[index + 1] - lookupTable[index]) * fraction;
+    }
+
+    /**
+     * 求解曲线参数s，使 x(s) = x
+     */
+    private double solveParameter(double x) {
+        // 牛顿迭代，初值取x本身
+        double s = x;
+        for (int i = 0; i < NEWTON_ITERATIONS; i++) {
+            double error = sampleX(s) - x;
+            if (Math.abs(error) < EPSILON) {
+                return s;
+            }
+            double slope = sampleDerivativeX(s);
+            if (Math.abs(slope) < EPSILON) {
+                break;
+            }
+            s -= error / slope;
+        }
+
+        // 斜率过小或未收敛时回退到二分法，x(s)在[0,1]上单调不减
+        double low = 0;
+        double high = 1;
+        s = x;
+        for (int i = 0; i < BISECTION_ITERATIONS; i++) {
+            double sampled = sampleX(s);
+            if (Math.abs(sampled - x) < EPSILON) {
+                return s;
+            }
+            if (sampled < x) {
+                low = s;
+            } else {
+                high = s;
+            }
+            s = (low + high) / 2;
+        }
+        return s;
+    }
+
+    private double sampleX(double s) {
+        return ((ax * s + bx) * s + cx) * s;
+    }
+
+    private double sampleY(double s) {
+        return ((ay * s + by) * s + cy) * s;
+    }
+
+    private double sampleDerivativeX(double s) {
+        return (3 * ax * s + 2 * bx) * s + cx;
+    }
+
+    public double getX1() {
+        return x1;
+    }
+
+    public double getY1() {
+        return y1;
+    }
+
+    public double getX2() {
+        return x2;
+    }
+
+    public double getY2() {
+        return y2;
+    }
+
+    @Override
+    public String serialize() {
+        return PREFIX + format(x1) + "," + format(y1) + "," + format(x2) + "," + format(y2) + ")";
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value)) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    @Override
+    public String toString() {
+        return serialize();
+    }
+
+    /**
+     * 缓存键，由四个控制点组成
+     */
+    private static final class Key {
+        private final double x1;
+        private final double y1;
+        private final double x2;
+        private final double y2;
+
+        Key(double x1, double y1, double x2, double y2) {
+            this.x1 = x1;
+            this.y1 = y1;
+            this.x2 = x2;
+            this.y2 = y2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Double.compare(key.x1, x1) == 0 && Double.compare(key.y1, y1) == 0
+                && Double.compare(key.x2, x2) == 0 && Double.compare(key.y2, y2) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            long bits = Double.doubleToLongBits(x1);
+            bits = 31 * bits + Double.doubleToLongBits(y1);
+            bits = 31 * bits + Double.doubleToLongBits(x2);
+            bits = 31 * bits + Double.doubleToLongBits(y2);
+            return (int) (bits ^ (bits >>> 32));
+        }
+    }
+}
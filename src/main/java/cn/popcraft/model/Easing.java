@@ -0,0 +1,41 @@
+package cn.popcraft.model;
+
+/**
+ * 缓动曲线，将段落内的原始进度映射为调整后的进度
+ * 固定的过渡效果由 {@link TransitionType} 提供，自定义曲线由 {@link CubicBezierEasing} 提供
+ */
+public interface Easing {
+
+    /**
+     * 计算过渡进度
+     * @param t 原始进度，范围[0,1]
+     * @return 调整后的进度
+     */
+    double calculateProgress(double t);
+
+    /**
+     * 获取用于保存到配置文件的字符串，可以由 {@link #parse(String)} 解析回来
+     * @return 配置字符串，例如 SMOOTH 或 cubic-bezier(0.25,0.1,0.25,1)
+     */
+    String serialize();
+
+    /**
+     * 解析缓动曲线，支持过渡类型名称(不区分大小写)和 cubic-bezier(x1,y1,x2,y2)
+     * @param value 配置字符串
+     * @return 缓动曲线，无法识别时返回null
+     */
+    static Easing parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (CubicBezierEasing.isCubicBezier(trimmed)) {
+            return CubicBezierEasing.parse(trimmed);
+        }
+        try {
+            return TransitionType.valueOf(trimmed.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package cn.popcraft.model;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 关键帧轨道，以并列的基本类型数组保存关键帧(结构数组布局)
+ * 关键帧不持有 {@link World} 引用，只在需要与Bukkit API交互时才转换为 {@link Location}
+ */
+public class KeyframeTrack {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private float[] yaw;
+    private float[] pitch;
+    private float[] roll;
+    private int size;
+
+    /**
+     * 创建一个空的关键帧轨道
+     */
+    public KeyframeTrack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 创建一个指定初始容量的关键帧轨道
+     * @param capacity 初始容量
+     */
+    public KeyframeTrack(int capacity) {
+        int initial = Math.max(capacity, 1);
+        this.x = new double[initial];
+        this.y = new double[initial];
+        this.z = new double[initial];
+        this.yaw = new float[initial];
+        this.pitch = new float[initial];
+        this.roll = new float[initial];
+        this.size = 0;
+    }
+
+    /**
+     * 复制另一个关键帧轨道，新轨道的容量与关键帧数量相同
+     * @param other 被复制的轨道
+     */
+    public KeyframeTrack(KeyframeTrack other) {
+        this(other.size);
+        addAll(other);
+    }
+
+    /**
+     * 添加关键帧
+     * @param x X坐标
+     * @param y Y坐标
+     * @param z Z坐标
+     * @param yaw 偏航角
+     * @param pitch 俯仰角
+     */
+    public void add(double x, double y, double z, float yaw, float pitch) {
+        add(x, y, z, yaw, pitch, 0.0f);
+    }
+
+    /**
+     * 添加带翻滚角的关键帧
+     * @param x X坐标
+     * @param y Y坐标
+     * @param z Z坐标
+     * @param yaw 偏航角
+     * @param pitch 俯仰角
+     * @param roll 翻滚角
+     */
+    public void add(double x, double y, double z, float yaw, float pitch, float roll) {
+        ensureCapacity(size + 1);
+        this.x[size] = x;
+        this.y[size] = y;
+        this.z[size] = z;
+        this.yaw[size] = yaw;
+        this.pitch[size] = pitch;
+        this.roll[size] = roll;
+        size++;
+    }
+
+    /**
+     * 添加关键帧，只复制坐标和视角，不保留世界引用
+     * @param location 位置
+     */
+    public void add(Location location) {
+        add(location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+    }
+
+    /**
+     * 追加另一个轨道的全部关键帧
+     * @param other 另一个轨道
+     */
+    public void addAll(KeyframeTrack other) {
+        int count = other.size;
+        ensureCapacity(size + count);
+        System.arraycopy(other.x, 0, x, size, count);
+        System.arraycopy(other.y, 0, y, size, count);
+        System.arraycopy(other.z, 0, z, size, count);
+        System.arraycopy(other.yaw, 0, yaw, size, count);
+        System.arraycopy(other.pitch, 0, pitch, size, count);
+        System.arraycopy(other.roll, 0, roll, size, count);
+        size += count;
+    }
+
+    /**
+     * 清除所有关键帧
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 获取关键帧数量
+     * @return 关键帧数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 检查轨道是否为空
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    public double getZ(int index) {
+        return z[index];
+    }
+
+    public float getYaw(int index) {
+        return yaw[index];
+    }
+
+    public float getPitch(int index) {
+        return pitch[index];
+    }
+
+    public float getRoll(int index) {
+        return roll[index];
+    }
+
+    /**
+     * 将指定关键帧写入姿态对象
+     * @param index 索引
+     * @param out 输出姿态
+     */
+    public void copyTo(int index, CameraPose out) {
+        out.set(x[index], y[index], z[index], yaw[index], pitch[index], roll[index]);
+    }
+
+    /**
+     * 将指定关键帧转换为位置对象
+     * @param index 索引
+     * @param world 世界，可以为null
+     * @return 位置对象
+     */
+    public Location toLocation(int index, World world) {
+        return new Location(world, x[index], y[index], z[index], yaw[index], pitch[index]);
+    }
+
+    /**
+     * 将全部关键帧转换为位置列表
+     * @param world 世界，可以为null
+     * @return 位置列表
+     */
+    public List<Location> toLocations(World world) {
+        List<Location> locations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            locations.add(toLocation(i, world));
+        }
+        return locations;
+    }
+
+    /**
+     * 确保数组容量足够
+     * @param required 需要的容量
+     */
+    private void ensureCapacity(int required) {
+        if (required <= x.length) {
+            return;
+        }
+        int capacity = Math.max(required, x.length + (x.length >> 1) + 1);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        yaw = Arrays.copyOf(yaw, capacity);
+        pitch = Arrays.copyOf(pitch, capacity);
+        roll = Arrays.copyOf(roll, capacity);
+    }
+}
@@ -0,0 +1,16 @@
+package cn.popcraft.model;
+
+/**
+ * 路径模式枚举，定义关键帧之间的位置曲线
+ */
+public enum PathMode {
+    /**
+     * 直线 - 相邻关键帧之间按直线移动(默认)
+     */
+    LINEAR,
+    
+    /**
+     * 向心Catmull-Rom样条 - 经过所有关键帧的平滑曲线，按弧长匀速移动
+     */
+    CATMULL_ROM
+}
@@ -2,14 +2,15 @@ package cn.popcraft.model;
 
 /**
  * 过渡类型枚举，定义不同的运镜过渡效果
+ * 公式含 pow/sin 的类型默认查询查找表，其余类型的公式比查表更快，始终按公式计算
  */
-public enum TransitionType {
+public enum TransitionType implements Easing {
     /**
      * 无过渡 - 直接切换到目标位置
      */
     NONE {
         @Override
-        public double calculateProgress(double t) {
+        public double calculateExact(double t) {
             return 1.0; // 立即完成
         }
     },
@@ -19,7 +20,7 @@ public enum TransitionType {
      */
     LINEAR {
         @Override
-        public double calculateProgress(double t) {
+        public double calculateExact(double t) {
             return t;
         }
     },
@@ -27,9 +28,9 @@ public enum TransitionType {
     /**
      * 缓入缓出过渡
      */
-    EASE_IN_OUT {
+    EASE_IN_OUT(true) {
         @Override
-        public double calculateProgress(double t) {
+        public double calculateExact(double t) {
             return t < 0.5 ? 2 * t * t : 1 - Math.pow(-2 * t + 2, 2) / 2;
         }
     },
@@ -39,7 +40,7 @@ public enum TransitionType {
      */
     EASE_IN {
         @Override
-        public double calculateProgress(double t) {
+        public double calculateExact(double t) {
             return t * t;
         }
     },
@@ -49,7 +50,7 @@ public enum TransitionType {
      */
     EASE_OUT {
         @Override
-        public double calculateProgress(double t) {
+        public double calculateExact(double t) {
             return 1 - (1 - t) * (1 - t);
         }
     },
@@ -59,7 +60,7 @@ public enum TransitionType {
      */
     BOUNCE {
         @Override
-        public double calculateProgress(double t) {
+        public double calculateExact(double t) {
             if (t < 1 / 2.75) {
                 return 7.5625 * t * t;
             } else if (t < 2 / 2.75) {
@@ -78,9 +79,9 @@ public enum TransitionType {
     /**
      * 弹性过渡效果
      */
-    ELASTIC {
+    ELASTIC(true) {
         @Override
-        public double calculateProgress(double t) {
+        public double calculateExact(double t) {
             if (t == 0 || t == 1) return t;
             double c4 = 2 * Math.PI / 3;
             return Math.pow(2, -10 * t) * Math.sin((t * 10 - 0.75) * c4) + 1;
@@ -90,19 +91,133 @@ public enum TransitionType {
     /**
      * 平滑过渡（默认）
      */
-    SMOOTH {
+    SMOOTH(true) {
         @Override
-        public double calculateProgress(double t) {
+        public double calculateExact(double t) {
             return t < 0.5 ? 2 * t * t : 1 - Math.pow(-2 * t + 2, 2) / 2;
         }
     };
 
+    /**
+     * 查找表的分段数，表中共有 LOOKUP_RESOLUTION + 1 个采样点
+     */
+    public static final int LOOKUP_RESOLUTION = 256;
+
+    // 检查查找表误差时在每个分段内额外采样的点数
+    private static final int ERROR_SAMPLES_PER_STEP = 16;
+
+    private static volatile boolean lookupEnabled = true;
+
+    static {
+        for (TransitionType type : values()) {
+            type.buildLookupTable();
+        }
+    }
+
+    private final boolean lookupPreferred; // 查表是否比公式更快
+    private double[] lookupTable;
+    private double maxLookupError;
+
+    TransitionType() {
+        this(false);
+    }
+
+    TransitionType(boolean lookupPreferred) {
+        this.lookupPreferred = lookupPreferred;
+    }
+
     /**
      * 计算过渡进度
+     * 公式含 pow/sin 的类型查询预先计算的查找表并在相邻采样点之间线性插值，
+     * 其他类型以及关闭查找表后调用解析公式 {@link #calculateExact(double)}
      * @param t 原始进度，范围[0,1]
      * @return 调整后的进度，范围[0,1]
      */
-    public abstract double calculateProgress(double t);
+    @Override
+    public final double calculateProgress(double t) {
+        return lookupPreferred && lookupEnabled ? lookup(t) : calculateExact(t);
+    }
+
+    /**
+     * 检查计算过渡进度时是否使用查找表
+     * @return 是否使用查找表
+     */
+    public boolean usesLookup() {
+        return lookupPreferred && lookupEnabled;
+    }
+
+    /**
+     * 使用解析公式计算过渡进度
+     * @param t 原始进度，范围[0,1]
+     * @return 调整后的进度，范围[0,1]
+     */
+    public abstract double calculateExact(double t);
+
+    /**
+     * 使用查找表计算过渡进度，超出[0,1]的进度会被截断
+     * @param t 原始进度，范围[0,1]
+     * @return 调整后的进度
+     */
+    public double lookup(double t) {
+        if (t <= 0) {
+            return lookupTable[0];
+        }
+        if (t >= 1) {
+            return lookupTable[LOOKUP_RESOLUTION];
+        }
+        double scaled = t * LOOKUP_RESOLUTION;
+        int index = (int) scaled;
+        double fraction = scaled - index;
+        return lookupTable[index] + (lookupTable[index + 1] - lookupTable[index]) * fraction;
+    }
+
+    /**
+     * 获取查找表相对解析公式的最大绝对误差，在类加载时逐段密集采样得到
+     * @return 最大误差
+     */
+    public double getMaxLookupError() {
+        return maxLookupError;
+    }
+
+    @Override
+    public String serialize() {
+        return name();
+    }
+
+    /**
+     * 设置是否使用查找表计算过渡进度，只对公式含 pow/sin 的类型生效
+     * @param enabled 是否启用查找表
+     */
+    public static void setLookupEnabled(boolean enabled) {
+        lookupEnabled = enabled;
+    }
+
+    /**
+     * 检查是否使用查找表计算过渡进度
+     * @return 是否启用查找表
+     */
+    public static boolean isLookupEnabled() {
+        return lookupEnabled;
+    }
+
+    /**
+     * 构建查找表并统计最大误差
+     */
+    private void buildLookupTable() {
+        double[] table = new double[LOOKUP_RESOLUTION + 1];
+        for (int i = 0; i <= LOOKUP_RESOLUTION; i++) {
+            table[i] = calculateExact((double) i / LOOKUP_RESOLUTION);
+        }
+        this.lookupTable = table;
+
+        double error = 0;
+        int samples = LOOKUP_RESOLUTION * ERROR_SAMPLES_PER_STEP;
+        for (int i = 0; i <= samples; i++) {
+            double t = (double) i / samples;
+            error = Math.max(error, Math.abs(lookup(t) - calculateExact(t)));
+        }
+        this.maxLookupError = error;
+    }
 
     /**
      * 计算两点之间的插值
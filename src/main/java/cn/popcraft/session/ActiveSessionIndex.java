@@ -0,0 +1,73 @@
+package cn.popcraft.session;
+
+import org.bukkit.entity.Player;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 处于相机模式的会话索引，供每个移动事件查询
+ * 绝大多数事件来自不在相机模式中的玩家，先按实体ID检查一位标记，未命中时直接返回，不计算UUID的哈希
+ * 玩家的实体ID在重生和切换世界后保持不变，标记命中后仍以UUID查找会话，残留的标记不会返回错误的会话
+ * 只在主线程访问
+ */
+public final class ActiveSessionIndex {
+    private final BitSet entityIds = new BitSet(); // 处于相机模式的玩家实体ID
+    private final Map<UUID, CameraSession> sessions = new HashMap<>();
+
+    /**
+     * 获取处于相机模式的会话
+     * @param player 玩家
+     * @return 相机会话，玩家不在相机模式中时返回null
+     */
+    public CameraSession get(Player player) {
+        int entityId = player.getEntityId();
+        if (entityId < 0 || !entityIds.get(entityId)) {
+            return null;
+        }
+        return sessions.get(player.getUniqueId());
+    }
+
+    /**
+     * 记录进入相机模式的会话
+     * @param player 玩家
+     * @param session 相机会话
+     */
+    public void put(Player player, CameraSession session) {
+        int entityId = player.getEntityId();
+        if (entityId >= 0) {
+            entityIds.set(entityId);
+        }
+        sessions.put(player.getUniqueId(), session);
+    }
+
+    /**
+     * 移除退出相机模式的会话
+     * @param player 玩家
+     */
+    public void remove(Player player) {
+        int entityId = player.getEntityId();
+        if (entityId >= 0) {
+            entityIds.clear(entityId);
+        }
+        sessions.remove(player.getUniqueId());
+    }
+
+    /**
+     * 获取处于相机模式的会话数量
+     * @return 会话数量
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * 检查是否没有会话处于相机模式
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return sessions.isEmpty();
+    }
+}
@@ -1,13 +1,16 @@
 package cn.popcraft.session;
 
+import cn.popcraft.VirtualCamera;
 import cn.popcraft.model.Camera;
-import cn.popcraft.model.CameraPreset;
+import cn.popcraft.model.CameraPose;
+import cn.popcraft.util.ActionDispatcher;
+import cn.popcraft.util.CameraTickDriver;
+import cn.popcraft.util.CompiledTimeline;
+import cn.popcraft.util.PlaybackClock;
 import cn.popcraft.util.Timeline;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -24,12 +27,22 @@ public class CameraSession {
     private boolean ignoreNextMove;
     
     // 新增字段
-    private Timeline timeline;
-    private List<BukkitTask> scheduledTasks = new ArrayList<>();
-    private BukkitTask animationTask;
+    private CompiledTimeline timeline;
+    private CameraTickDriver tickDriver; // 当前动画所在的驱动器
+    private final CameraTickDriver.Entry animationEntry = new CameraTickDriver.Entry() {
+        @Override
+        protected boolean tick(long nowNanos) {
+            return updateAnimation(nowNanos);
+        }
+    };
+    private ActionDispatcher actionDispatcher; // 当前播放的文本和命令分发器
     private long startTime;
+    private PlaybackClock playbackClock; // 当前动画的播放时钟
     private boolean isPlaying;
+    private final CameraPose animationPose = new CameraPose(); // 动画采样复用的姿态
+    private final Location animationLocation; // 动画传送复用的位置
     private Runnable animationCompleteListener; // 新增字段：动画完成监听器
+    private Runnable cameraModeListener; // 进入或退出相机模式时调用
 
     // 为兼容性保留的字段
     private List<Location> pathPoints = new ArrayList<>();
@@ -46,8 +59,9 @@ public class CameraSession {
         this.originalLocation = null;
         this.inCameraMode = false;
         this.ignoreNextMove = false;
-        this.timeline = new Timeline();
+        this.timeline = new Timeline().compile();
         this.isPlaying = false;
+        this.animationLocation = player.getLocation().clone();
     }
 
     /**
@@ -135,7 +149,12 @@ public class CameraSession {
      * @param inCameraMode 是否在相机模式中
      */
     public void setInCameraMode(boolean inCameraMode) {
-        this.inCameraMode = inCameraMode;
+        if (this.inCameraMode != inCameraMode) {
+            this.inCameraMode = inCameraMode;
+            if (cameraModeListener != null) {
+                cameraModeListener.run();
+            }
+        }
     }
 
     /**
@@ -169,7 +188,7 @@ public class CameraSession {
                     location.getPitch()
             );
             
-            inCameraMode = true;
+            setInCameraMode(true);
         }
     }
 
@@ -186,7 +205,7 @@ public class CameraSession {
                 player.teleport(originalLocation);
             }
             
-            inCameraMode = false;
+            setInCameraMode(false);
             originalLocation = null;
         }
     }
@@ -215,6 +234,14 @@ public class CameraSession {
      * @param timeline 时间轴
      */
     public void setTimeline(Timeline timeline) {
+        this.timeline = timeline != null ? timeline.compile() : null;
+    }
+
+    /**
+     * 设置已编译的相机时间轴
+     * @param timeline 编译后的时间轴
+     */
+    public void setTimeline(CompiledTimeline timeline) {
         this.timeline = timeline;
     }
 
@@ -229,43 +256,52 @@ public class CameraSession {
         stopAnimation();
         
         isPlaying = true;
-        startTime = System.currentTimeMillis();
+        playbackClock = PlaybackClock.create();
+        playbackClock.start(System.nanoTime());
+        animationLocation.setWorld(player.getWorld());
+        actionDispatcher = new ActionDispatcher(player, timeline);
         
         org.bukkit.plugin.Plugin plugin = Bukkit.getPluginManager().getPlugin("VirtualCamera");
-        if (plugin == null) {
+        if (!(plugin instanceof VirtualCamera)) {
             isPlaying = false;
             return;
         }
         
-        animationTask = Bukkit.getScheduler().runTaskTimer(
-            plugin,
-            this::updateAnimation,
-            0L,
-            1L
-        );
+        tickDriver = ((VirtualCamera) plugin).getTickDriver();
+        tickDriver.add(animationEntry);
     }
 
     /**
-     * 更新动画帧
+     * 更新动画帧，由tick驱动器调用
+     * @param nowNanos 本tick的时间
+     * @return 动画是否继续
      */
-    private void updateAnimation() {
+    private boolean updateAnimation(long nowNanos) {
         if (!isPlaying || timeline == null) {
-            return;
+            return false;
         }
         
-        long elapsed = System.currentTimeMillis() - startTime;
-        Location currentLocation = timeline.getLocationAt(elapsed);
-        if (currentLocation != null && currentLocation.getWorld() != null) {
-            player.teleport(currentLocation);
+        long seekNanos = playbackClock.pollSeek();
+        if (seekNanos >= 0) {
+            // 在前进之前把游标移到目标位置之前，目标位置及本tick前进范围内的动作都会触发
+            actionDispatcher.seek(seekNanos / 1_000_000L - 1);
+        }
+        long elapsedNanos = playbackClock.advance(nowNanos);
+        if (timeline.sampleInto(elapsedNanos, animationPose) && animationLocation.getWorld() != null) {
+            player.teleport(animationPose.applyTo(animationLocation));
         }
+        actionDispatcher.dispatch(elapsedNanos / 1_000_000L);
         
-        if (elapsed >= timeline.getTotalDuration()) {
+        if (elapsedNanos >= timeline.getTotalDuration() * 1_000_000L) {
             stopAnimation();
             
             if (animationCompleteListener != null) {
                 animationCompleteListener.run();
             }
+            // 完成监听器可能已经开始了下一段动画
+            return animationEntry.isActive();
         }
+        return true;
     }
 
     /**
@@ -274,18 +310,60 @@ public class CameraSession {
     public void stopAnimation() {
         isPlaying = false;
         
-        if (animationTask != null) {
-            animationTask.cancel();
-            animationTask = null;
+        if (tickDriver != null) {
+            tickDriver.remove(animationEntry);
+            tickDriver = null;
         }
         
-        // 取消所有计划的任务
-        for (BukkitTask task : scheduledTasks) {
-            if (task != null && !task.isCancelled()) {
-                task.cancel();
-            }
+        if (actionDispatcher != null) {
+            actionDispatcher.finish();
+            actionDispatcher = null;
         }
-        scheduledTasks.clear();
+    }
+
+    /**
+     * 暂停动画，相机停留在当前位置
+     * @return 是否有可以暂停的动画
+     */
+    public boolean pauseAnimation() {
+        if (!isPlaying || playbackClock == null) {
+            return false;
+        }
+        playbackClock.pause();
+        return true;
+    }
+
+    /**
+     * 继续播放暂停的动画
+     * @return 是否有可以继续的动画
+     */
+    public boolean resumeAnimation() {
+        if (!isPlaying || playbackClock == null) {
+            return false;
+        }
+        playbackClock.resume();
+        return true;
+    }
+
+    /**
+     * 跳转到动画的指定位置，跳过的文本和命令不会触发
+     * @param positionMs 播放位置(毫秒)
+     * @return 是否有可以跳转的动画
+     */
+    public boolean seekAnimation(long positionMs) {
+        if (!isPlaying || playbackClock == null) {
+            return false;
+        }
+        playbackClock.seek(positionMs);
+        return true;
+    }
+
+    /**
+     * 获取当前动画的播放时钟
+     * @return 播放时钟，ProtocolLib动画结束后或没有播放过动画时返回null
+     */
+    public PlaybackClock getPlaybackClock() {
+        return playbackClock;
     }
 
     /**
@@ -351,57 +429,10 @@ public class CameraSession {
         }
     }
 
-    /**
-     * 执行预设命令
-     * @param preset 相机预设
-     */
-    public void scheduleCommands(CameraPreset preset) {
-        for (CameraPreset.CommandAction cmd : preset.getCommands()) {
-            BukkitTask task = Bukkit.getScheduler().runTaskLater(
-                Bukkit.getPluginManager().getPlugin("VirtualCamera"),
-                () -> Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd.getCommand()),
-                cmd.getDelay() / 50
-            );
-            scheduledTasks.add(task);
-        }
-    }
-
-    /**
-     * 显示预设文本
-     * @param preset 相机预设
-     */
-    public void scheduleTexts(CameraPreset preset) {
-        for (CameraPreset.TextAction text : preset.getTexts()) {
-            BukkitTask task = Bukkit.getScheduler().runTaskLater(
-                Bukkit.getPluginManager().getPlugin("VirtualCamera"),
-                () -> {
-                    player.sendActionBar(ChatColor.translateAlternateColorCodes('&', text.getText()));
-                    // 如果设置了持续时间，调度清除动作
-                    if (text.getDuration() > 0) {
-                        Bukkit.getScheduler().runTaskLater(
-                                Bukkit.getPluginManager().getPlugin("VirtualCamera"),
-                                () -> player.sendActionBar(""),
-                                text.getDuration() / 50
-                        );
-                    }
-                },
-                text.getDelay() / 50
-            );
-            scheduledTasks.add(task);
-        }
-    }
-
     /**
      * 清理所有任务
      */
     private void cleanupTasks() {
-        scheduledTasks.forEach(task -> {
-            if (task != null && !task.isCancelled()) {
-                task.cancel();
-            }
-        });
-        scheduledTasks.clear();
-        
         stopAnimation();
     }
     
@@ -413,6 +444,14 @@ public class CameraSession {
         this.animationCompleteListener = listener;
     }
     
+    /**
+     * 设置相机模式监听器，进入或退出相机模式时调用，由会话管理器用来跟踪处于相机模式的会话
+     * @param listener 监听器
+     */
+    public void setCameraModeListener(Runnable listener) {
+        this.cameraModeListener = listener;
+    }
+    
     /**
      * 设置时间轴
      * @param timeline 时间轴
@@ -482,15 +521,28 @@ public class CameraSession {
      * @param timeline 时间轴
      * @param duration 持续时间(毫秒)
      */
-    public void playProtocolCameraAnimation(cn.popcraft.VirtualCameraPlugin plugin, Timeline timeline, long duration) {
+    public void playProtocolCameraAnimation(cn.popcraft.VirtualCameraPlugin plugin, CompiledTimeline timeline, long duration) {
         if (plugin.getProtocolCameraController() != null) {
             stopAnimation();
             
+            PlaybackClock clock = PlaybackClock.create();
+            clock.start(System.nanoTime());
+            playbackClock = clock;
             isPlaying = true;
-            startTime = System.currentTimeMillis();
             
             plugin.getProtocolCameraController().startCameraMode(player);
-            plugin.getProtocolCameraController().playCameraAnimation(player, timeline, duration);
+            // 控制器的动画结束后清除播放状态，暂停和跳转不再作用于已经结束的动画
+            boolean started = plugin.getProtocolCameraController().playCameraAnimation(player, timeline, duration, clock,
+                () -> {
+                    if (playbackClock == clock) {
+                        isPlaying = false;
+                        playbackClock = null;
+                    }
+                });
+            if (!started && playbackClock == clock) {
+                isPlaying = false;
+                playbackClock = null;
+            }
         }
     }
     
@@ -503,7 +555,7 @@ public class CameraSession {
         }
         cleanupTasks();
         originalLocation = null;
-        inCameraMode = false;
+        setInCameraMode(false);
         ignoreNextMove = false;
         pathPoints.clear();
     }
@@ -23,6 +23,13 @@ public interface SessionManager {
      */
     boolean hasSession(Player player);
 
+    /**
+     * 获取处于相机模式的玩家会话，不会创建会话
+     * @param player 玩家
+     * @return 相机会话，玩家不在相机模式中时返回null
+     */
+    CameraSession getActiveSession(Player player);
+
     /**
      * 移除玩家的相机会话
      * @param player 玩家
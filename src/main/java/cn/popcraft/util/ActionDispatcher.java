@@ -0,0 +1,91 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPreset;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * 时间轴动作分发器，每次播放创建一个，由播放任务每tick调用
+ * 通过游标只处理上一次调用之后新越过的文本和命令动作，
+ * 文本的清除时间也在这里跟踪，不再为每个动作单独调度任务
+ * 命令只执行一次，文本发送给所有观众，多名玩家观看同一个广播时共用一个分发器
+ */
+public class ActionDispatcher {
+    private final Collection<? extends Player> viewers;
+    private final ActionTrack<CameraPreset.TextAction>.Cursor textCursor;
+    private final ActionTrack<CameraPreset.CommandAction>.Cursor commandCursor;
+    private long clearTextAt = -1; // 动作栏文本的清除时间(毫秒)，-1表示没有待清除的文本
+
+    /**
+     * 创建动作分发器
+     * @param player 玩家
+     * @param timeline 编译后的时间轴
+     */
+    public ActionDispatcher(Player player, CompiledTimeline timeline) {
+        this(Collections.singletonList(player), timeline);
+    }
+
+    /**
+     * 创建多名玩家共用的动作分发器，观众集合可以在两次调用之间变化
+     * @param viewers 观众
+     * @param timeline 编译后的时间轴
+     */
+    public ActionDispatcher(Collection<? extends Player> viewers, CompiledTimeline timeline) {
+        this.viewers = viewers;
+        this.textCursor = timeline.getTextTrack().cursor();
+        this.commandCursor = timeline.getCommandTrack().cursor();
+    }
+
+    /**
+     * 触发从上一次调用到指定时间之间的所有动作，必须在主线程调用
+     * @param elapsed 已经过的时间(毫秒)
+     */
+    public void dispatch(long elapsed) {
+        while (commandCursor.hasDue(elapsed)) {
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), commandCursor.next().getCommand());
+        }
+
+        while (textCursor.hasDue(elapsed)) {
+            CameraPreset.TextAction text = textCursor.next();
+            sendActionBar(ChatColor.translateAlternateColorCodes('&', text.getText()));
+            // 新文本覆盖旧文本的清除时间，避免旧文本到期时清掉新文本
+            clearTextAt = text.getDuration() > 0 ? text.getDelay() + text.getDuration() : -1;
+        }
+
+        if (clearTextAt >= 0 && elapsed >= clearTextAt) {
+            sendActionBar("");
+            clearTextAt = -1;
+        }
+    }
+
+    /**
+     * 将游标移动到指定时间，之前的动作不会再触发
+     * 仍在显示的文本先被清除，否则会一直显示到客户端自行淡出
+     * @param elapsed 已经过的时间(毫秒)
+     */
+    public void seek(long elapsed) {
+        finish();
+        textCursor.seek(elapsed);
+        commandCursor.seek(elapsed);
+    }
+
+    /**
+     * 播放结束或被中断时调用，清除仍在显示的文本
+     */
+    public void finish() {
+        if (clearTextAt >= 0) {
+            sendActionBar("");
+            clearTextAt = -1;
+        }
+    }
+
+    private void sendActionBar(String text) {
+        for (Player viewer : viewers) {
+            viewer.sendActionBar(text);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package cn.popcraft.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按时间排序的动作轨道，同一时间点可以有多个动作
+ * 创建后不可修改，播放时通过 {@link Cursor} 逐tick取出新越过的动作，
+ * 游标只向前移动，每次推进的均摊开销为 O(1)，且不创建任何对象
+ * @param <T> 动作类型
+ */
+public final class ActionTrack<T> {
+    private static final ActionTrack<?> EMPTY = new ActionTrack<>(new long[0], new Object[0]);
+
+    private final long[] times; // 升序排列的触发时间(毫秒)
+    private final Object[] actions; // 与times一一对应的动作
+
+    private ActionTrack(long[] times, Object[] actions) {
+        this.times = times;
+        this.actions = actions;
+    }
+
+    /**
+     * 获取空的动作轨道
+     * @param <T> 动作类型
+     * @return 空轨道
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ActionTrack<T> empty() {
+        return (ActionTrack<T>) EMPTY;
+    }
+
+    /**
+     * 创建一个新的播放游标，位于轨道开头
+     * @return 游标
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * 获取动作数量
+     * @return 动作数量
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * 检查轨道是否为空
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return times.length == 0;
+    }
+
+    /**
+     * 获取指定索引的触发时间
+     * @param index 索引
+     * @return 触发时间(毫秒)
+     */
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    /**
+     * 获取指定索引的动作
+     * @param index 索引
+     * @return 动作
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) actions[index];
+    }
+
+    /**
+     * 获取最后一个动作的触发时间
+     * @return 触发时间(毫秒)，轨道为空时返回0
+     */
+    public long getLastTime() {
+        return times.length == 0 ? 0 : times[times.length - 1];
+    }
+
+    /**
+     * 获取时间区间 [start, end) 内的全部动作
+     * 会创建新的列表，播放时应使用 {@link Cursor}
+     * @param start 开始时间(毫秒)，包含
+     * @param end 结束时间(毫秒)，不包含
+     * @return 动作列表
+     */
+    public List<T> collect(long start, long end) {
+        List<T> result = new ArrayList<>();
+        for (int i = lowerBound(start); i < times.length && times[i] < end; i++) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 查找第一个触发时间不小于指定时间的索引
+     * @param time 时间(毫秒)
+     * @return 索引，全部小于指定时间时返回 size()
+     */
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 播放游标，记录下一个未触发的动作
+     * 每次播放应使用独立的游标，游标本身不是线程安全的
+     */
+    public final class Cursor {
+        private int position;
+
+        private Cursor() {
+        }
+
+        /**
+         * 检查是否有触发时间不晚于指定时间的未触发动作
+         * @param elapsed 已经过的时间(毫秒)
+         * @return 是否有到期的动作
+         */
+        public boolean hasDue(long elapsed) {
+            return position < times.length && times[position] <= elapsed;
+        }
+
+        /**
+         * 取出下一个动作并前进，调用前应先用 {@link #hasDue(long)} 检查
+         * @return 动作
+         */
+        public T next() {
+            return get(position++);
+        }
+
+        /**
+         * 将游标移动到指定时间，之后只会取出触发时间晚于该时间的动作
+         * @param elapsed 已经过的时间(毫秒)
+         */
+        public void seek(long elapsed) {
+            position = lowerBound(elapsed + 1);
+        }
+
+        /**
+         * 将游标重置到轨道开头
+         */
+        public void reset() {
+            position = 0;
+        }
+
+        /**
+         * 检查是否所有动作都已触发
+         * @return 是否已全部触发
+         */
+        public boolean isFinished() {
+            return position >= times.length;
+        }
+    }
+
+    /**
+     * 动作轨道构建器，按添加顺序保存动作，构建时稳定排序
+     * 相同时间的多个动作都会保留，并按添加顺序触发
+     * @param <T> 动作类型
+     */
+    public static final class Builder<T> {
+        private long[] times = new long[4];
+        private Object[] actions = new Object[4];
+        private int size;
+
+        /**
+         * 添加动作
+         * @param time 触发时间(毫秒)
+         * @param action 动作
+         */
+        public void add(long time, T action) {
+            if (size == times.length) {
+                int capacity = size + (size >> 1) + 1;
+                times = Arrays.copyOf(times, capacity);
+                actions = Arrays.copyOf(actions, capacity);
+            }
+            times[size] = time;
+            actions[size] = action;
+            size++;
+        }
+
+        /**
+         * 清除所有动作
+         */
+        public void clear() {
+            Arrays.fill(actions, 0, size, null);
+            size = 0;
+        }
+
+        /**
+         * 获取动作数量
+         * @return 动作数量
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * 构建不可变的动作轨道
+         * @return 动作轨道
+         */
+        public ActionTrack<T> build() {
+            if (size == 0) {
+                return empty();
+            }
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            // 对象数组排序是稳定的，相同时间的动作保持添加顺序
+            Arrays.sort(order, (a, b) -> Long.compare(times[a], times[b]));
+
+            long[] sortedTimes = new long[size];
+            Object[] sortedActions = new Object[size];
+            for (int i = 0; i < size; i++) {
+                sortedTimes[i] = times[order[i]];
+                sortedActions[i] = actions[order[i]];
+            }
+            return new ActionTrack<>(sortedTimes, sortedActions);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPose;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 异步姿态计算器，在独立线程中为所有活动的动画采样姿态
+ * 采样得到的姿态通过无锁队列交给主线程，主线程每tick只为最新的姿态编码并发送
+ * 启用异步发送时由计算线程直接编码并发送，更新频率按 System.nanoTime 计时，可以高于服务器的20TPS且不受TPS下降影响
+ * 编码器有状态(相对移动的基准位置、变化检测)，因此只有真正发送的姿态才会被编码，合并丢弃的姿态不影响编码器
+ * 姿态采样只读取不可变的 {@link CompiledTimeline}，不访问世界状态，因此可以在主线程之外执行
+ * 每个玩家的发送间隔有下限，计算线程落后时补算的帧会被丢弃，主线程来不及发送时只保留最新一帧，出站流量因此有上限
+ */
+public class AsyncPoseWorker {
+    // 活动动画达到该数量时才并行计算，数量较少时线程切换的开销大于收益
+    private static final int PARALLEL_THRESHOLD = 16;
+
+    private final Plugin plugin;
+    private final CameraTickDriver tickDriver;
+    private final long frameIntervalNanos;
+    private final long minSendIntervalNanos; // 每个玩家两次发送之间的最短间隔
+    private final boolean sendAsync;
+    private final Set<Job> jobs = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Job> ready = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService clock;
+    private final ForkJoinPool pool;
+    private final CameraTickDriver.Entry flushEntry = new CameraTickDriver.Entry() {
+        @Override
+        protected boolean tick(long nowNanos) {
+            flush();
+            return !jobs.isEmpty() || !ready.isEmpty();
+        }
+    };
+
+    /**
+     * 由计算线程采样姿态、由主线程编码并发送的动画任务
+     * 每个任务最多在队列中出现一次，主线程来不及发送时只保留最新的姿态
+     */
+    public abstract static class Job {
+        private final Object lock; // 交接姿态以及异步发送时持有的锁
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private final CameraPose computed = new CameraPose(); // 只在计算线程中访问
+        private final CameraPose latest = new CameraPose(); // 等待主线程发送的姿态，由锁保护
+        private final CameraPose sending = new CameraPose(); // 只在主线程中访问
+        private boolean hasLatest; // 由锁保护
+        private long nextSendNanos; // 只在计算线程中访问
+        private boolean closed; // 由锁保护
+
+        protected Job() {
+            this.lock = this;
+        }
+
+        /**
+         * 创建使用指定锁的任务，任务之外的代码持有同一个锁时不会与计算线程的编码和发送交错
+         * @param lock 锁对象
+         */
+        protected Job(Object lock) {
+            this.lock = lock;
+        }
+
+        /**
+         * 在计算线程中采样指定时间的姿态
+         * @param nowNanos 当前时间 System.nanoTime()
+         * @param out 输出姿态
+         * @return 本帧没有姿态时返回false
+         */
+        protected abstract boolean computeFrame(long nowNanos, CameraPose out);
+
+        /**
+         * 编码并发送姿态，默认在主线程调用，启用异步发送时在计算线程中持有任务的锁调用
+         * 传入的姿态对象会被复用，不能在调用之后保留
+         * @param pose 最新的姿态
+         */
+        protected abstract void send(CameraPose pose);
+    }
+
+    /**
+     * 创建异步姿态计算器
+     * @param plugin 插件实例
+     * @param tickDriver 用于在主线程发送数据包的tick驱动器
+     * @param threads 并行计算的线程数
+     * @param framesPerSecond 计算帧率，主线程发送时高于20没有效果
+     * @param sendAsync 是否由计算线程直接发送
+     * @param maxPacketsPerSecond 每个玩家每秒最多发送的帧数
+     */
+    public AsyncPoseWorker(Plugin plugin, CameraTickDriver tickDriver, int threads, int framesPerSecond,
+                           boolean sendAsync, int maxPacketsPerSecond) {
+        this.plugin = plugin;
+        this.tickDriver = tickDriver;
+        this.frameIntervalNanos = 1_000_000_000L / Math.max(1, framesPerSecond);
+        this.sendAsync = sendAsync;
+        // 留出半帧的余量，避免计时抖动使刚好到期的帧被丢弃
+        this.minSendIntervalNanos = Math.max(0, 1_000_000_000L / Math.max(1, maxPacketsPerSecond) - frameIntervalNanos / 2);
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VirtualCamera-PoseWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        clock.scheduleAtFixedRate(this::computeAll, frameIntervalNanos, frameIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 添加动画任务，必须在主线程调用
+     * @param job 动画任务
+     */
+    public void add(Job job) {
+        jobs.add(job);
+        if (!sendAsync) {
+            tickDriver.add(flushEntry);
+        }
+    }
+
+    /**
+     * 移除动画任务，已经生成但还未发送的帧会被丢弃
+     * 异步发送时等待正在进行的生成和发送完成，返回后计算线程不会再发送该任务的帧
+     * @param job 动画任务
+     */
+    public void remove(Job job) {
+        jobs.remove(job);
+        ready.remove(job);
+        synchronized (job.lock) {
+            job.closed = true;
+            job.hasLatest = false;
+        }
+    }
+
+    /**
+     * 在计算线程中为所有任务生成一帧
+     */
+    private void computeAll() {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        Job[] snapshot = jobs.toArray(new Job[0]);
+        try {
+            if (snapshot.length >= PARALLEL_THRESHOLD) {
+                pool.submit(() -> Arrays.stream(snapshot).parallel().forEach(job -> compute(job, now))).join();
+            } else {
+                for (Job job : snapshot) {
+                    compute(job, now);
+                }
+            }
+        } catch (Exception e) {
+            // 异常不能抛出，否则定时任务会停止
+            plugin.getLogger().severe("并行计算相机姿态失败: " + e.getMessage());
+        }
+    }
+
+    private void compute(Job job, long now) {
+        // 超出发送频率限制时跳过，计算线程停顿后连续补算的帧也在这里丢弃
+        if (now < job.nextSendNanos) {
+            return;
+        }
+        try {
+            if (!job.computeFrame(now, job.computed)) {
+                return;
+            }
+        } catch (Exception e) {
+            plugin.getLogger().severe("计算相机姿态失败: " + e.getMessage());
+            return;
+        }
+        job.nextSendNanos = now + minSendIntervalNanos;
+
+        synchronized (job.lock) {
+            if (job.closed) {
+                return;
+            }
+            if (sendAsync) {
+                // 编码和发送在同一个锁内完成，任务移除后不会再有编码了却没发送的帧
+                job.send(job.computed);
+                return;
+            }
+            // 覆盖还未发送的姿态，被覆盖的姿态从未编码，不影响编码器
+            job.latest.set(job.computed);
+            job.hasLatest = true;
+        }
+        if (job.queued.compareAndSet(false, true)) {
+            ready.offer(job);
+        }
+    }
+
+    /**
+     * 在主线程编码并发送所有任务的最新姿态
+     */
+    private void flush() {
+        Job job;
+        while ((job = ready.poll()) != null) {
+            // 先清除标记再读取，之后采样的姿态会重新入队
+            job.queued.set(false);
+            synchronized (job.lock) {
+                if (!job.hasLatest || job.closed) {
+                    continue;
+                }
+                job.sending.set(job.latest);
+                job.hasLatest = false;
+            }
+            job.send(job.sending);
+        }
+    }
+
+    /**
+     * 检查是否由计算线程直接发送，此时生成的每一帧都会按顺序发送
+     * @return 是否异步发送
+     */
+    public boolean isSendAsync() {
+        return sendAsync;
+    }
+
+    /**
+     * 停止计算线程并移除所有任务
+     */
+    public void shutdown() {
+        clock.shutdownNow();
+        pool.shutdownNow();
+        jobs.clear();
+        ready.clear();
+        tickDriver.remove(flushEntry);
+    }
+}
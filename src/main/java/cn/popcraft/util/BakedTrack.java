@@ -0,0 +1,107 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPose;
+import cn.popcraft.model.TransitionType;
+
+/**
+ * 预先烘焙的姿态帧缓冲，按固定帧率保存整条时间轴的姿态
+ * 播放时直接按时间计算帧索引读取数组，不再查找段落和计算缓动
+ * 两帧之间的时间在相邻两帧之间线性插值，异步线程以高于烘焙帧率的频率采样时画面仍然连续
+ * 帧数据由 {@link CompiledTimeline} 的解析采样生成，因此与现有的过渡效果完全一致
+ */
+public final class BakedTrack {
+    // 每帧占用的字节数：3个double坐标 + 2个float视角
+    static final int BYTES_PER_FRAME = 3 * Double.BYTES + 2 * Float.BYTES;
+
+    private final long frameIntervalNanos;
+    private final int frameCount;
+    private final double[] positions; // 每帧3个分量 (x, y, z)
+    private final float[] rotations; // 每帧2个分量 (yaw, pitch)
+
+    private BakedTrack(long frameIntervalNanos, double[] positions, float[] rotations) {
+        this.frameIntervalNanos = frameIntervalNanos;
+        this.frameCount = rotations.length / 2;
+        this.positions = positions;
+        this.rotations = rotations;
+    }
+
+    /**
+     * 按指定帧率烘焙时间轴，可以在异步线程调用
+     * @param timeline 编译后的时间轴
+     * @param framesPerSecond 帧率
+     * @return 烘焙结果，时间轴没有关键帧时返回null
+     */
+    static BakedTrack bake(CompiledTimeline timeline, int framesPerSecond) {
+        if (timeline.getKeyframeCount() == 0) {
+            return null;
+        }
+        long frameIntervalNanos = 1_000_000_000L / framesPerSecond;
+        int frameCount = estimateFrameCount(timeline, framesPerSecond);
+
+        double[] positions = new double[frameCount * 3];
+        float[] rotations = new float[frameCount * 2];
+        CameraPose pose = new CameraPose();
+        for (int frame = 0; frame < frameCount; frame++) {
+            timeline.sampleExact(frame * frameIntervalNanos, pose);
+            positions[frame * 3] = pose.getX();
+            positions[frame * 3 + 1] = pose.getY();
+            positions[frame * 3 + 2] = pose.getZ();
+            rotations[frame * 2] = pose.getYaw();
+            rotations[frame * 2 + 1] = pose.getPitch();
+        }
+        return new BakedTrack(frameIntervalNanos, positions, rotations);
+    }
+
+    /**
+     * 估算烘焙所需的帧数，路径结束后姿态不再变化，只烘焙路径部分
+     * @param timeline 编译后的时间轴
+     * @param framesPerSecond 帧率
+     * @return 帧数(包含结束帧)
+     */
+    static int estimateFrameCount(CompiledTimeline timeline, int framesPerSecond) {
+        long frames = timeline.getPathDuration() * framesPerSecond / 1000L + 1;
+        return (int) Math.min(frames, Integer.MAX_VALUE / 3);
+    }
+
+    /**
+     * 在指定时间前后的两帧之间插值并写入姿态，不创建任何对象
+     * 坐标线性插值，视角沿最短方向插值
+     * @param elapsedNanos 已经过的时间(纳秒)
+     * @param out 输出姿态
+     */
+    public void sampleInto(long elapsedNanos, CameraPose out) {
+        long clamped = Math.max(elapsedNanos, 0);
+        long index = clamped / frameIntervalNanos;
+        if (index >= frameCount - 1) {
+            int last = frameCount - 1;
+            out.set(positions[last * 3], positions[last * 3 + 1], positions[last * 3 + 2],
+                rotations[last * 2], rotations[last * 2 + 1]);
+            return;
+        }
+        int frame = (int) index;
+        double t = (double) (clamped - index * frameIntervalNanos) / frameIntervalNanos;
+        int p = frame * 3;
+        int r = frame * 2;
+        out.set(TransitionType.lerp(positions[p], positions[p + 3], t),
+            TransitionType.lerp(positions[p + 1], positions[p + 4], t),
+            TransitionType.lerp(positions[p + 2], positions[p + 5], t),
+            TransitionType.lerpAngle(rotations[r], rotations[r + 2], t),
+            TransitionType.lerpAngle(rotations[r + 1], rotations[r + 3], t));
+    }
+
+    /**
+     * 获取帧数
+     * @return 帧数
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * 获取帧缓冲占用的内存
+     * @return 字节数
+     */
+    public long getMemoryBytes() {
+        return (long) frameCount * BYTES_PER_FRAME;
+    }
+}
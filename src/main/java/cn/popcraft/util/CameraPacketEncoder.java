@@ -0,0 +1,165 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPose;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolManager;
+import com.comphenix.protocol.events.PacketContainer;
+
+/**
+ * 摄像机实体的移动数据包编码器，每个摄像机实体一个
+ * 相邻两帧的位移在相对移动数据包的范围内时发送 REL_ENTITY_MOVE_LOOK，
+ * 每个坐标只占2字节，客户端也会对相对移动做平滑插值；位移过大时改为发送完整的 ENTITY_TELEPORT
+ * 基准位置以定点数记录，相对移动不会累积误差，另外每隔固定帧数发送一次传送重新同步
+ * 与上一次发送的姿态相比变化不超过容差时不发送任何数据包，连续省略一定帧数后发送一次传送作为心跳
+ * 发送后的数据包可能仍在网络线程中编码，因此每帧创建一个新的数据包，而不是修改上一次发送的数据包
+ * 复制预先写好实体ID的模板代替每帧创建数据包尚未采用：数据包只能在服务器中创建，
+ * 现有的 JMH 基准测试环境无法比较两种方式，需要在运行中的服务器上测得收益后再改
+ * 编码方法互斥执行，但调用方需要保证编码得到的数据包按编码顺序发送且不会被丢弃，
+ * 多个线程都会发送时应在编码器的锁内完成编码和发送
+ */
+final class CameraPacketEncoder {
+    // 相对移动以 1/4096 方块为单位，每个坐标用short表示
+    private static final double UNITS_PER_BLOCK = 4096.0;
+
+    private final ProtocolManager protocolManager;
+    private final int entityId;
+    private final boolean relativeMoves;
+    private final int resyncInterval;
+    private final double positionEpsilon;
+    private final float angleEpsilon;
+    private final int heartbeatInterval;
+    private final CameraPacketStats stats;
+
+    private boolean synced; // 客户端位置是否已知
+    private long baseX; // 客户端当前位置(定点数)
+    private long baseY;
+    private long baseZ;
+    private int framesSinceResync;
+    private double lastX; // 上一次发送的姿态
+    private double lastY;
+    private double lastZ;
+    private float lastYaw;
+    private float lastPitch;
+    private int framesSinceSend;
+
+    /**
+     * 创建编码器
+     * @param protocolManager ProtocolLib管理器
+     * @param entityId 摄像机实体ID
+     * @param relativeMoves 是否使用相对移动，关闭时总是发送传送
+     * @param resyncInterval 两次强制传送之间最多的相对移动帧数
+     * @param positionEpsilon 坐标容差(方块)，小于0时不省略任何帧
+     * @param angleEpsilon 视角容差(度)
+     * @param heartbeatInterval 连续省略多少帧后强制发送一次
+     * @param stats 数据包统计
+     */
+    CameraPacketEncoder(ProtocolManager protocolManager, int entityId, boolean relativeMoves, int resyncInterval,
+                        double positionEpsilon, float angleEpsilon, int heartbeatInterval, CameraPacketStats stats) {
+        this.protocolManager = protocolManager;
+        this.entityId = entityId;
+        this.relativeMoves = relativeMoves;
+        this.resyncInterval = Math.max(1, resyncInterval);
+        this.positionEpsilon = positionEpsilon;
+        this.angleEpsilon = angleEpsilon;
+        this.heartbeatInterval = Math.max(1, heartbeatInterval);
+        this.stats = stats;
+    }
+
+    /**
+     * 编码移动到指定姿态的数据包，并把该姿态记为客户端的当前位置
+     * @param pose 目标姿态
+     * @return 数据包，姿态与上一次发送的相比没有变化时返回null
+     */
+    synchronized PacketContainer encode(CameraPose pose) {
+        boolean heartbeat = framesSinceSend + 1 >= heartbeatInterval;
+        if (synced && !heartbeat && isUnchanged(pose)) {
+            framesSinceSend++;
+            stats.recordSuppressed();
+            return null;
+        }
+
+        long x = toFixed(pose.getX());
+        long y = toFixed(pose.getY());
+        long z = toFixed(pose.getZ());
+        // 姿态以四元数插值时，角度在这里第一次读取时才换算
+        byte yaw = toAngle(pose.getYaw());
+        byte pitch = toAngle(pose.getPitch());
+
+        PacketContainer packet;
+        // 心跳总是发送完整的传送，客户端丢失实体时也能恢复
+        if (relativeMoves && synced && !heartbeat && framesSinceResync < resyncInterval
+                && fitsShort(x - baseX) && fitsShort(y - baseY) && fitsShort(z - baseZ)) {
+            packet = createRelativeMove((short) (x - baseX), (short) (y - baseY), (short) (z - baseZ), yaw, pitch);
+            framesSinceResync++;
+            stats.recordRelativeMove();
+        } else {
+            packet = createTeleport(pose.getX(), pose.getY(), pose.getZ(), yaw, pitch);
+            framesSinceResync = 0;
+            synced = true;
+            stats.recordTeleport();
+        }
+
+        baseX = x;
+        baseY = y;
+        baseZ = z;
+        lastX = pose.getX();
+        lastY = pose.getY();
+        lastZ = pose.getZ();
+        lastYaw = pose.getYaw();
+        lastPitch = pose.getPitch();
+        framesSinceSend = 0;
+        return packet;
+    }
+
+    /**
+     * 检查姿态与上一次发送的姿态相比是否在容差范围内
+     */
+    private boolean isUnchanged(CameraPose pose) {
+        return Math.abs(pose.getX() - lastX) <= positionEpsilon
+            && Math.abs(pose.getY() - lastY) <= positionEpsilon
+            && Math.abs(pose.getZ() - lastZ) <= positionEpsilon
+            && angleDifference(pose.getYaw(), lastYaw) <= angleEpsilon
+            && angleDifference(pose.getPitch(), lastPitch) <= angleEpsilon;
+    }
+
+    private static float angleDifference(float a, float b) {
+        float difference = Math.abs(a - b) % 360.0F;
+        return difference > 180.0F ? 360.0F - difference : difference;
+    }
+
+    private PacketContainer createRelativeMove(short dx, short dy, short dz, byte yaw, byte pitch) {
+        PacketContainer packet = protocolManager.createPacket(PacketType.Play.Server.REL_ENTITY_MOVE_LOOK);
+        packet.getIntegers().write(0, entityId);
+        packet.getShorts().write(0, dx);
+        packet.getShorts().write(1, dy);
+        packet.getShorts().write(2, dz);
+        packet.getBytes().write(0, yaw);
+        packet.getBytes().write(1, pitch);
+        packet.getBooleans().write(0, false);
+        return packet;
+    }
+
+    private PacketContainer createTeleport(double x, double y, double z, byte yaw, byte pitch) {
+        PacketContainer packet = protocolManager.createPacket(PacketType.Play.Server.ENTITY_TELEPORT);
+        packet.getIntegers().write(0, entityId);
+        packet.getDoubles().write(0, x);
+        packet.getDoubles().write(1, y);
+        packet.getDoubles().write(2, z);
+        packet.getBytes().write(0, yaw);
+        packet.getBytes().write(1, pitch);
+        packet.getBooleans().write(0, false);
+        return packet;
+    }
+
+    private static long toFixed(double coordinate) {
+        return Math.round(coordinate * UNITS_PER_BLOCK);
+    }
+
+    private static byte toAngle(float degrees) {
+        return (byte) (degrees * 256.0F / 360.0F);
+    }
+
+    private static boolean fitsShort(long delta) {
+        return delta >= Short.MIN_VALUE && delta <= Short.MAX_VALUE;
+    }
+}
@@ -0,0 +1,107 @@
+package cn.popcraft.util;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolManager;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.utility.MinecraftVersion;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 摄像机数据包发送器
+ * 1.19.4(协议762)及以上的客户端支持数据包组，同一组内的数据包由客户端在同一帧中一起处理，
+ * 多个数据包可以合并为一个数据包组发送；服务器或客户端不支持时逐个发送
+ * 在相机tick中产生的数据包先按玩家缓存，tick结束时每个玩家合并发送一次，只能在主线程使用队列
+ */
+final class CameraPacketSender {
+    // 支持数据包组的最低协议版本(1.19.4)
+    private static final int BUNDLE_PROTOCOL_VERSION = 762;
+
+    private final Plugin plugin;
+    private final ProtocolManager protocolManager;
+    private final CameraTickDriver tickDriver;
+    private final boolean serverSupportsBundles;
+    private final Map<Player, List<PacketContainer>> pending = new LinkedHashMap<>();
+
+    CameraPacketSender(Plugin plugin, ProtocolManager protocolManager, CameraTickDriver tickDriver) {
+        this.plugin = plugin;
+        this.protocolManager = protocolManager;
+        this.tickDriver = tickDriver;
+        this.serverSupportsBundles = detectBundleSupport(protocolManager);
+        tickDriver.addTickEndListener(this::flush);
+    }
+
+    /**
+     * 发送数据包，在相机tick中调用时缓存到tick结束再发送，必须在主线程调用
+     * @param player 玩家
+     * @param packet 数据包
+     */
+    void send(Player player, PacketContainer packet) {
+        if (tickDriver.isTicking()) {
+            pending.computeIfAbsent(player, key -> new ArrayList<>(4)).add(packet);
+        } else {
+            sendNow(player, Arrays.asList(packet));
+        }
+    }
+
+    /**
+     * 立即发送一组数据包，客户端支持时合并为一个数据包组，可以在任意线程调用
+     * @param player 玩家
+     * @param packets 数据包，按顺序处理
+     */
+    void sendNow(Player player, List<PacketContainer> packets) {
+        try {
+            if (packets.size() > 1 && supportsBundles(player)) {
+                PacketContainer bundle = protocolManager.createPacket(PacketType.Play.Server.BUNDLE);
+                bundle.getPacketBundles().write(0, packets);
+                protocolManager.sendServerPacket(player, bundle);
+            } else {
+                for (PacketContainer packet : packets) {
+                    protocolManager.sendServerPacket(player, packet);
+                }
+            }
+        } catch (Exception e) {
+            plugin.getLogger().severe("发送数据包失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 发送本tick缓存的所有数据包
+     */
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Player, List<PacketContainer>> entry : pending.entrySet()) {
+            if (entry.getKey().isOnline()) {
+                sendNow(entry.getKey(), entry.getValue());
+            }
+        }
+        pending.clear();
+    }
+
+    private boolean supportsBundles(Player player) {
+        if (!serverSupportsBundles) {
+            return false;
+        }
+        // 通过协议转换插件连接的旧版客户端不支持数据包组
+        int version = protocolManager.getProtocolVersion(player);
+        return version <= 0 || version >= BUNDLE_PROTOCOL_VERSION;
+    }
+
+    private static boolean detectBundleSupport(ProtocolManager protocolManager) {
+        try {
+            return protocolManager.getMinecraftVersion().isAtLeast(MinecraftVersion.FEATURE_PREVIEW_2)
+                && PacketType.Play.Server.BUNDLE.isSupported();
+        } catch (Throwable e) {
+            // 旧版ProtocolLib没有数据包组类型
+            return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package cn.popcraft.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 摄像机数据包统计，记录发送的传送、相对移动以及因姿态未变化而省略的帧
+ * 计数器可以在任意线程更新
+ */
+public class CameraPacketStats {
+    private final AtomicLong teleports = new AtomicLong();
+    private final AtomicLong relativeMoves = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    void recordTeleport() {
+        teleports.incrementAndGet();
+    }
+
+    void recordRelativeMove() {
+        relativeMoves.incrementAndGet();
+    }
+
+    void recordSuppressed() {
+        suppressed.incrementAndGet();
+    }
+
+    /**
+     * 获取发送的传送数据包数量
+     * @return 数量
+     */
+    public long getTeleports() {
+        return teleports.get();
+    }
+
+    /**
+     * 获取发送的相对移动数据包数量
+     * @return 数量
+     */
+    public long getRelativeMoves() {
+        return relativeMoves.get();
+    }
+
+    /**
+     * 获取发送的数据包总数
+     * @return 数量
+     */
+    public long getSent() {
+        return teleports.get() + relativeMoves.get();
+    }
+
+    /**
+     * 获取因姿态未变化而省略的帧数
+     * @return 数量
+     */
+    public long getSuppressed() {
+        return suppressed.get();
+    }
+
+    /**
+     * 清零所有计数
+     */
+    public void reset() {
+        teleports.set(0);
+        relativeMoves.set(0);
+        suppressed.set(0);
+    }
+}
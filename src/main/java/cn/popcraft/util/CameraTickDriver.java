@@ -0,0 +1,242 @@
+package cn.popcraft.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 全局相机tick驱动器，所有正在播放的动画共用一个每tick运行的任务
+ * 活动的播放保存在紧凑数组中，添加和移除都是 O(1)，不再为每个玩家注册调度任务
+ * 延迟任务由驱动器持有的 {@link TimingWheel} 调度，每tick先推进时间轮再更新播放
+ * 没有活动播放和延迟任务时任务自动停止，只能在主线程使用
+ */
+public class CameraTickDriver implements Runnable {
+    private final Plugin plugin;
+    private final TimingWheel timingWheel;
+    private Entry[] entries = new Entry[16];
+    private int size;
+    private BukkitTask task;
+    private boolean ticking; // 正在遍历数组，移除操作推迟到遍历到该项时执行
+    private boolean inTick; // 正在执行本tick的延迟任务或播放项
+    private final List<Runnable> tickEndListeners = new ArrayList<>();
+
+    public CameraTickDriver(Plugin plugin) {
+        this.plugin = plugin;
+        this.timingWheel = new TimingWheel(plugin.getLogger());
+    }
+
+    /**
+     * 由驱动器每tick调用的播放项
+     * 一个播放项同一时间只能加入一个驱动器
+     */
+    public abstract static class Entry {
+        private int slot = -1; // 在数组中的位置，未加入时为-1
+        private boolean cancelled;
+
+        /**
+         * 每tick调用一次
+         * @param nowNanos 本tick的 System.nanoTime()，同一tick内所有播放项相同
+         * @return 返回false时从驱动器中移除
+         */
+        protected abstract boolean tick(long nowNanos);
+
+        /**
+         * 从驱动器中移除后调用，无论是主动取消还是tick返回false
+         */
+        protected void onRemoved() {
+        }
+
+        /**
+         * 检查是否仍在驱动器中
+         * @return 是否活动
+         */
+        public boolean isActive() {
+            return slot >= 0 && !cancelled;
+        }
+    }
+
+    /**
+     * 添加播放项，已在驱动器中时忽略
+     * @param entry 播放项
+     */
+    public void add(Entry entry) {
+        if (entry.slot >= 0) {
+            // 本tick内先取消又重新添加，撤销取消即可
+            entry.cancelled = false;
+            return;
+        }
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entry.cancelled = false;
+        entry.slot = size;
+        entries[size++] = entry;
+        ensureRunning();
+    }
+
+    /**
+     * 调度延迟任务
+     * @param delayTicks 延迟(tick)
+     * @param task 任务
+     * @param group 所属分组，可以为null
+     * @return 任务句柄
+     */
+    public TimingWheel.Timer schedule(long delayTicks, Runnable task, TimingWheel.TimerGroup group) {
+        TimingWheel.Timer timer = timingWheel.schedule(delayTicks, task, group);
+        ensureRunning();
+        return timer;
+    }
+
+    /**
+     * 取消分组中的所有延迟任务
+     * @param group 分组
+     */
+    public void cancelAll(TimingWheel.TimerGroup group) {
+        timingWheel.cancelAll(group);
+    }
+
+    private void ensureRunning() {
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this, 0L, 1L);
+        }
+    }
+
+    /**
+     * 移除播放项，不在驱动器中时忽略
+     * 在tick过程中调用时只做标记，遍历到该项时再移除
+     * @param entry 播放项
+     */
+    public void remove(Entry entry) {
+        if (entry.slot < 0 || entry.cancelled) {
+            return;
+        }
+        entry.cancelled = true;
+        if (!ticking) {
+            removeAt(entry.slot);
+        }
+    }
+
+    /**
+     * 添加在每tick的延迟任务和播放项都执行完后调用的监听器，用于合并发送本tick产生的数据包
+     * @param listener 监听器
+     */
+    public void addTickEndListener(Runnable listener) {
+        tickEndListeners.add(listener);
+    }
+
+    /**
+     * 检查当前是否在执行相机tick，tick结束监听器执行时已经不在tick中
+     * @return 是否在tick中
+     */
+    public boolean isTicking() {
+        return inTick;
+    }
+
+    @Override
+    public void run() {
+        inTick = true;
+        try {
+            tickEntries();
+        } finally {
+            inTick = false;
+        }
+
+        for (Runnable listener : tickEndListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                plugin.getLogger().severe("相机tick结束处理失败: " + e.getMessage());
+            }
+        }
+
+        if (size == 0 && timingWheel.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * 推进时间轮并更新所有播放项
+     */
+    private void tickEntries() {
+        timingWheel.advance();
+
+        long now = System.nanoTime();
+        ticking = true;
+        try {
+            // 从后向前遍历，移除时用最后一项填补空位，被移过来的项本tick已经处理过
+            for (int i = size - 1; i >= 0; i--) {
+                Entry entry = entries[i];
+                boolean keep;
+                if (entry.cancelled) {
+                    keep = false;
+                } else {
+                    try {
+                        keep = entry.tick(now);
+                    } catch (Exception e) {
+                        plugin.getLogger().severe("相机播放更新失败: " + e.getMessage());
+                        keep = false;
+                    }
+                }
+                if (!keep) {
+                    // tick内部可能已经调用了remove，这里统一移除
+                    entry.cancelled = true;
+                    removeAt(i);
+                }
+            }
+        } finally {
+            ticking = false;
+        }
+    }
+
+    /**
+     * 移除指定位置的播放项，用最后一项填补
+     */
+    private void removeAt(int index) {
+        Entry removed = entries[index];
+        int last = --size;
+        if (index != last) {
+            Entry moved = entries[last];
+            entries[index] = moved;
+            moved.slot = index;
+        }
+        entries[last] = null;
+        removed.slot = -1;
+        removed.onRemoved();
+    }
+
+    /**
+     * 获取活动的播放项数量
+     * @return 数量
+     */
+    public int getActiveCount() {
+        return size;
+    }
+
+    /**
+     * 获取时间轮
+     * @return 时间轮
+     */
+    public TimingWheel getTimingWheel() {
+        return timingWheel;
+    }
+
+    /**
+     * 停止驱动器，移除所有播放项并取消所有延迟任务
+     */
+    public void shutdown() {
+        for (int i = size - 1; i >= 0; i--) {
+            entries[i].cancelled = true;
+            removeAt(i);
+        }
+        timingWheel.clear();
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
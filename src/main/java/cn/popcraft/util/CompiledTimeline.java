@@ -0,0 +1,257 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPose;
+import cn.popcraft.model.CameraPreset;
+import cn.popcraft.model.KeyframeTrack;
+import cn.popcraft.model.PathMode;
+import cn.popcraft.model.Easing;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 编译后的时间轴，由 {@link Timeline#compile()} 生成，创建后不可修改
+ * 段落起始时间以前缀和的形式保存在 long[] 中，按时间查找段落时使用二分查找，
+ * 每次采样的开销为 O(log n)，不再逐段累加
+ * 关键帧以基本类型数组保存且不绑定世界，同一个编译结果可以在任意世界中播放
+ */
+public final class CompiledTimeline {
+    private final KeyframeTrack keyframes;
+    private final PathMode pathMode;
+    private final SplinePath spline; // 样条模式下预先计算的曲线，直线模式为null
+    private final OrientationTrack orientations; // 关键帧朝向的四元数及squad控制点
+    private final Easing[] easings;
+    private final long[] segmentStarts; // segmentStarts[i] 为第i段的开始时间，最后一个元素为路径总时长
+    private final long pathDuration; // 路径部分的持续时间(毫秒)
+    private final long totalDuration; // 包含文本和命令的总持续时间(毫秒)
+    private final ActionTrack<CameraPreset.TextAction> textTrack;
+    private final ActionTrack<CameraPreset.CommandAction> commandTrack;
+    private volatile BakedTrack bakedTrack; // 由 FrameBakery 挂载的帧缓冲，未烘焙时为null
+
+    CompiledTimeline(KeyframeTrack keyframes, PathMode pathMode, List<Easing> easings,
+                     long[] segmentDurations, long totalDuration,
+                     ActionTrack<CameraPreset.TextAction> textTrack,
+                     ActionTrack<CameraPreset.CommandAction> commandTrack) {
+        this.keyframes = new KeyframeTrack(keyframes);
+        this.pathMode = pathMode;
+        this.spline = pathMode == PathMode.CATMULL_ROM && this.keyframes.size() > 1
+            ? new SplinePath(this.keyframes)
+            : null;
+        this.orientations = new OrientationTrack(this.keyframes);
+        this.easings = easings.toArray(new Easing[0]);
+
+        int segmentCount = segmentDurations.length;
+        this.segmentStarts = new long[segmentCount + 1];
+        for (int i = 0; i < segmentCount; i++) {
+            segmentStarts[i + 1] = segmentStarts[i] + segmentDurations[i];
+        }
+        this.pathDuration = segmentStarts[segmentCount];
+        this.totalDuration = Math.max(totalDuration, pathDuration);
+        this.textTrack = textTrack;
+        this.commandTrack = commandTrack;
+    }
+
+    /**
+     * 获取指定时间点的位置
+     * @param elapsed 已经过的时间(毫秒)
+     * @return 对应的时间点位置(世界为null)
+     */
+    public Location getLocationAt(long elapsed) {
+        return getLocationAt(elapsed, null);
+    }
+
+    /**
+     * 获取指定时间点的位置
+     * 每次调用都会创建新的位置对象，播放时应使用 {@link #sampleInto(long, CameraPose)}
+     * @param elapsed 已经过的时间(毫秒)
+     * @param world 位置所在的世界
+     * @return 对应的时间点位置
+     */
+    public Location getLocationAt(long elapsed, World world) {
+        CameraPose pose = new CameraPose();
+        if (!sampleInto(elapsed * 1_000_000L, pose)) {
+            return null;
+        }
+        return pose.toLocation(world);
+    }
+
+    /**
+     * 采样指定时间点的相机姿态并写入输出对象
+     * 每tick调用的热路径，不创建任何对象；已烘焙时直接读取帧缓冲
+     * @param elapsedNanos 已经过的时间(纳秒)
+     * @param out 输出姿态
+     * @return 时间轴没有关键帧时返回false
+     */
+    public boolean sampleInto(long elapsedNanos, CameraPose out) {
+        BakedTrack baked = bakedTrack;
+        if (baked != null) {
+            baked.sampleInto(elapsedNanos, out);
+            return true;
+        }
+        return sampleExact(elapsedNanos, out);
+    }
+
+    /**
+     * 按关键帧和缓动曲线解析采样，不使用帧缓冲
+     * @param elapsedNanos 已经过的时间(纳秒)
+     * @param out 输出姿态
+     * @return 时间轴没有关键帧时返回false
+     */
+    boolean sampleExact(long elapsedNanos, CameraPose out) {
+        int count = keyframes.size();
+        if (count == 0) {
+            return false;
+        }
+
+        if (count == 1) {
+            keyframes.copyTo(0, out);
+            return true;
+        }
+
+        long elapsed = elapsedNanos / 1_000_000L;
+        if (elapsed >= pathDuration) {
+            keyframes.copyTo(count - 1, out);
+            return true;
+        }
+
+        int segment = findSegment(elapsed);
+        long segmentDuration = segmentStarts[segment + 1] - segmentStarts[segment];
+        double progress = segmentDuration > 0
+            ? (elapsedNanos - segmentStarts[segment] * 1_000_000L) / (segmentDuration * 1_000_000.0)
+            : 1.0;
+
+        double eased = easings[segment].calculateProgress(progress);
+        if (spline != null) {
+            // 样条模式：按弧长在曲线上取点，段落内匀速或按过渡类型缓动
+            spline.positionInto(segment, eased, out);
+        } else {
+            PathInterpolator.lerpPositionInto(keyframes, segment, eased, out);
+        }
+        // 朝向以四元数插值，样条路径使用squad使跨关键帧的角速度连续
+        orientations.sampleInto(segment, eased, spline != null, out);
+        return true;
+    }
+
+    /**
+     * 挂载或移除帧缓冲
+     * @param track 帧缓冲，为null时恢复解析采样
+     */
+    void attachBakedTrack(BakedTrack track) {
+        this.bakedTrack = track;
+    }
+
+    /**
+     * 检查是否已烘焙为帧缓冲
+     * @return 是否已烘焙
+     */
+    public boolean isBaked() {
+        return bakedTrack != null;
+    }
+
+    /**
+     * 二分查找时间点所在的段落
+     * @param elapsed 已经过的时间(毫秒)
+     * @return 段落索引
+     */
+    private int findSegment(long elapsed) {
+        int lastSegment = segmentStarts.length - 2;
+        if (elapsed <= 0) {
+            return 0;
+        }
+        // 在 [0, lastSegment] 中查找最后一个开始时间小于 elapsed 的段落，
+        // 恰好落在边界上的时间归属前一段(进度为1)，与逐段累加的行为一致
+        int index = Arrays.binarySearch(segmentStarts, 0, lastSegment + 1, elapsed);
+        if (index >= 0) {
+            // 存在时长为0的段落时可能有多个相同的开始时间，回退到第一个
+            while (index > 0 && segmentStarts[index - 1] == elapsed) {
+                index--;
+            }
+            return Math.max(0, index - 1);
+        }
+        return Math.min(-index - 2, lastSegment);
+    }
+
+    /**
+     * 获取在指定时间需要执行的文本动作
+     * 会创建新的列表，播放时应使用 {@link #getTextTrack()} 的游标
+     * @param elapsed 已经过的时间(毫秒)
+     * @param delta 检查的时间间隔(毫秒)
+     * @return 需要执行的文本动作列表
+     */
+    public List<CameraPreset.TextAction> getTextActionsAt(long elapsed, long delta) {
+        return textTrack.collect(elapsed, elapsed + delta);
+    }
+
+    /**
+     * 获取在指定时间需要执行的命令动作
+     * 会创建新的列表，播放时应使用 {@link #getCommandTrack()} 的游标
+     * @param elapsed 已经过的时间(毫秒)
+     * @param delta 检查的时间间隔(毫秒)
+     * @return 需要执行的命令动作列表
+     */
+    public List<CameraPreset.CommandAction> getCommandActionsAt(long elapsed, long delta) {
+        return commandTrack.collect(elapsed, elapsed + delta);
+    }
+
+    /**
+     * 获取文本动作轨道
+     * @return 文本动作轨道
+     */
+    public ActionTrack<CameraPreset.TextAction> getTextTrack() {
+        return textTrack;
+    }
+
+    /**
+     * 获取命令动作轨道
+     * @return 命令动作轨道
+     */
+    public ActionTrack<CameraPreset.CommandAction> getCommandTrack() {
+        return commandTrack;
+    }
+
+    /**
+     * 获取总持续时间
+     * @return 总持续时间(毫秒)
+     */
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    /**
+     * 获取路径部分的持续时间
+     * @return 路径持续时间(毫秒)
+     */
+    public long getPathDuration() {
+        return pathDuration;
+    }
+
+    /**
+     * 获取路径模式
+     * @return 路径模式
+     */
+    public PathMode getPathMode() {
+        return pathMode;
+    }
+
+    /**
+     * 获取关键帧数量
+     * @return 关键帧数量
+     */
+    public int getKeyframeCount() {
+        return keyframes.size();
+    }
+
+    /**
+     * 获取指定索引的关键帧
+     * @param index 索引
+     * @return 关键帧位置
+     */
+    public Location getKeyframe(int index) {
+        if (index >= 0 && index < keyframes.size()) {
+            return keyframes.toLocation(index, null);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,115 @@
+package cn.popcraft.util;
+
+import java.util.Arrays;
+
+/**
+ * 段落持续时间的树状数组(Fenwick树)
+ * 修改单个段落、查询前缀和以及按时间查找段落都是 O(log n)，
+ * 用于在编辑器中频繁修改长路径的段落时长，而不必每次重新累加所有段落
+ * 所有数值必须非负，按时间查找段落依赖前缀和单调不减
+ */
+final class FenwickTree {
+    private long[] values; // 每个段落的原始数值
+    private long[] tree; // 1起始的树状数组
+    private int size;
+
+    FenwickTree() {
+        this.values = new long[8];
+        this.tree = new long[9];
+    }
+
+    /**
+     * 在末尾追加一个数值
+     * @param value 数值
+     */
+    void add(long value) {
+        if (size == values.length) {
+            int capacity = size + (size >> 1) + 1;
+            values = Arrays.copyOf(values, capacity);
+            tree = Arrays.copyOf(tree, capacity + 1);
+        }
+        values[size] = value;
+        size++;
+        // 新节点覆盖区间 (i - lowbit(i), i]，等于该区间内已有数值之和加上新值
+        int i = size;
+        tree[i] = value + prefixSum(i - 1) - prefixSum(i - (i & -i));
+    }
+
+    /**
+     * 修改指定位置的数值
+     * @param index 索引(0起始)
+     * @param value 新数值
+     */
+    void set(int index, long value) {
+        long delta = value - values[index];
+        values[index] = value;
+        for (int i = index + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * 获取指定位置的数值
+     * @param index 索引(0起始)
+     * @return 数值
+     */
+    long get(int index) {
+        return values[index];
+    }
+
+    /**
+     * 获取前count个数值之和
+     * @param count 数量
+     * @return 前缀和
+     */
+    long prefixSum(int count) {
+        long sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 获取所有数值之和
+     * @return 总和
+     */
+    long total() {
+        return prefixSum(size);
+    }
+
+    /**
+     * 查找时间点所在的位置：前缀和严格小于该时间的最长前缀长度
+     * 恰好落在边界上的时间归属前一段，与 {@link CompiledTimeline} 的查找规则一致
+     * @param time 时间
+     * @return 位置索引，范围 [0, size - 1]
+     */
+    int find(long time) {
+        int position = 0;
+        long remaining = time;
+        for (int step = Integer.highestOneBit(Math.max(size, 1)); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= size && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return Math.min(position, size - 1);
+    }
+
+    /**
+     * 获取数值数量
+     * @return 数量
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * 复制所有数值
+     * @return 数值数组
+     */
+    long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
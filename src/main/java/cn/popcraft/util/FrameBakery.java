@@ -0,0 +1,145 @@
+package cn.popcraft.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 帧烘焙器，在异步线程中把常用预设的时间轴烘焙为 {@link BakedTrack}
+ * 所有烘焙结果共享一个内存预算，超出预算时按最近最少使用的顺序淘汰
+ * 烘焙完成后结果挂载到对应的 {@link CompiledTimeline} 上，之后的采样直接读取帧缓冲
+ */
+public class FrameBakery {
+    private final Plugin plugin;
+    private final boolean enabled;
+    private final int framesPerSecond;
+    private final long memoryBudgetBytes;
+
+    // 按访问顺序排列的烘焙结果，最久未使用的在最前面
+    private final LinkedHashMap<CompiledTimeline, BakedTrack> baked = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<CompiledTimeline> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long usedBytes;
+    private long generation; // 每次清除时增加，清除前开始的烘焙完成后直接丢弃
+
+    /**
+     * 创建帧烘焙器
+     * @param plugin 插件实例，用于调度异步任务
+     * @param enabled 是否启用烘焙
+     * @param framesPerSecond 烘焙帧率，不低于20
+     * @param memoryBudgetBytes 所有烘焙结果的内存预算(字节)
+     */
+    public FrameBakery(Plugin plugin, boolean enabled, int framesPerSecond, long memoryBudgetBytes) {
+        this.plugin = plugin;
+        this.enabled = enabled;
+        this.framesPerSecond = Math.max(20, framesPerSecond);
+        this.memoryBudgetBytes = Math.max(0, memoryBudgetBytes);
+    }
+
+    /**
+     * 标记时间轴即将播放：已烘焙时刷新使用顺序，否则在异步线程中开始烘焙
+     * 本次播放在烘焙完成前使用解析采样，完成后自动切换到帧缓冲
+     * @param timeline 编译后的时间轴
+     */
+    public void use(CompiledTimeline timeline) {
+        if (!enabled || timeline.getKeyframeCount() < 2) {
+            return;
+        }
+
+        long bakeGeneration;
+        synchronized (this) {
+            if (baked.get(timeline) != null || pending.contains(timeline)) {
+                return;
+            }
+            long required = (long) BakedTrack.estimateFrameCount(timeline, framesPerSecond) * BakedTrack.BYTES_PER_FRAME;
+            if (required > memoryBudgetBytes) {
+                // 单个时间轴就超出预算，始终使用解析采样
+                return;
+            }
+            pending.add(timeline);
+            bakeGeneration = generation;
+        }
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            BakedTrack track = null;
+            try {
+                track = BakedTrack.bake(timeline, framesPerSecond);
+            } catch (Exception e) {
+                plugin.getLogger().severe("烘焙时间轴失败: " + e.getMessage());
+            } finally {
+                store(timeline, track, bakeGeneration);
+            }
+        });
+    }
+
+    /**
+     * 保存烘焙结果并淘汰超出预算的旧结果，烘焙期间发生过清除时丢弃结果
+     */
+    private synchronized void store(CompiledTimeline timeline, BakedTrack track, long bakeGeneration) {
+        if (bakeGeneration != generation) {
+            // 清除后同一个时间轴可能已经重新开始烘焙，不能修改新的等待状态
+            return;
+        }
+        pending.remove(timeline);
+        if (track == null) {
+            return;
+        }
+
+        usedBytes += track.getMemoryBytes();
+        baked.put(timeline, track);
+        timeline.attachBakedTrack(track);
+
+        Iterator<Map.Entry<CompiledTimeline, BakedTrack>> iterator = baked.entrySet().iterator();
+        while (usedBytes > memoryBudgetBytes && iterator.hasNext()) {
+            Map.Entry<CompiledTimeline, BakedTrack> eldest = iterator.next();
+            if (eldest.getKey() == timeline) {
+                continue;
+            }
+            eldest.getKey().attachBakedTrack(null);
+            usedBytes -= eldest.getValue().getMemoryBytes();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 移除所有烘焙结果，正在进行的烘焙完成后不会再挂载
+     */
+    public synchronized void clear() {
+        generation++;
+        pending.clear();
+        for (CompiledTimeline timeline : baked.keySet()) {
+            timeline.attachBakedTrack(null);
+        }
+        baked.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * 检查是否启用烘焙
+     * @return 是否启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取已烘焙的时间轴数量
+     * @return 数量
+     */
+    public synchronized int getBakedCount() {
+        return baked.size();
+    }
+
+    /**
+     * 获取烘焙结果占用的内存
+     * @return 字节数
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+}
@@ -0,0 +1,188 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPose;
+import cn.popcraft.model.KeyframeTrack;
+
+/**
+ * 朝向轨道，将关键帧的偏航/俯仰/翻滚角预先转换为单位四元数
+ * 采样时使用球面线性插值(slerp)或球面四边形插值(squad)，
+ * 避免分别插值偏航角和俯仰角时在接近±90°俯仰角处出现万向节锁和抖动
+ * 四元数和squad控制点都在编译时算好，采样过程不创建任何对象
+ */
+final class OrientationTrack {
+    private static final double EPSILON = 1e-6;
+
+    private final double[] rotations; // 每个关键帧4个分量 (w, x, y, z)
+    private final double[] controls; // 每个关键帧的squad控制点，同样4个分量
+
+    OrientationTrack(KeyframeTrack keyframes) {
+        int count = keyframes.size();
+        this.rotations = new double[count * 4];
+        this.controls = new double[count * 4];
+
+        for (int i = 0; i < count; i++) {
+            fromAngles(keyframes.getYaw(i), keyframes.getPitch(i), keyframes.getRoll(i), rotations, i * 4);
+            // q 与 -q 表示同一朝向，保证相邻关键帧处于同一半球，插值才会走最短路径
+            if (i > 0 && dot(rotations, (i - 1) * 4, rotations, i * 4) < 0) {
+                for (int c = 0; c < 4; c++) {
+                    rotations[i * 4 + c] = -rotations[i * 4 + c];
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || i == count - 1) {
+                System.arraycopy(rotations, i * 4, controls, i * 4, 4);
+            } else {
+                computeControl(i);
+            }
+        }
+    }
+
+    /**
+     * 在段落内插值朝向并写入姿态，不修改坐标
+     * @param segment 段落索引
+     * @param progress 段落内进度 (0.0 到 1.0)
+     * @param squad 是否使用squad(样条路径)，否则使用slerp
+     * @param out 输出姿态
+     */
+    void sampleInto(int segment, double progress, boolean squad, CameraPose out) {
+        double h = progress <= 0 ? 0 : (progress >= 1 ? 1 : progress);
+        int a = segment * 4;
+        int b = a + 4;
+
+        // slerp(q_i, q_i+1, h)
+        double theta = angle(dot(rotations, a, rotations, b));
+        double w0 = weight(theta, 1 - h);
+        double w1 = weight(theta, h);
+        double qw = rotations[a] * w0 + rotations[b] * w1;
+        double qx = rotations[a + 1] * w0 + rotations[b + 1] * w1;
+        double qy = rotations[a + 2] * w0 + rotations[b + 2] * w1;
+        double qz = rotations[a + 3] * w0 + rotations[b + 3] * w1;
+
+        if (squad) {
+            // squad = slerp(slerp(q_i, q_i+1, h), slerp(s_i, s_i+1, h), 2h(1-h))
+            theta = angle(dot(controls, a, controls, b));
+            w0 = weight(theta, 1 - h);
+            w1 = weight(theta, h);
+            double sw = controls[a] * w0 + controls[b] * w1;
+            double sx = controls[a + 1] * w0 + controls[b + 1] * w1;
+            double sy = controls[a + 2] * w0 + controls[b + 2] * w1;
+            double sz = controls[a + 3] * w0 + controls[b + 3] * w1;
+
+            double t = 2 * h * (1 - h);
+            theta = angle(qw * sw + qx * sx + qy * sy + qz * sz);
+            w0 = weight(theta, 1 - t);
+            w1 = weight(theta, t);
+            qw = qw * w0 + sw * w1;
+            qx = qx * w0 + sx * w1;
+            qy = qy * w0 + sy * w1;
+            qz = qz * w0 + sz * w1;
+        }
+
+        // 消除累计误差，保证输出为单位四元数
+        double length = Math.sqrt(qw * qw + qx * qx + qy * qy + qz * qz);
+        out.setOrientation(qw / length, qx / length, qy / length, qz / length);
+    }
+
+    /**
+     * 计算squad控制点 s_i = q_i * exp(-(log(q_i^-1 * q_i+1) + log(q_i^-1 * q_i-1)) / 4)
+     * @param i 关键帧索引(不含首尾)
+     */
+    private void computeControl(int i) {
+        int c = i * 4;
+        double w = rotations[c];
+        double x = rotations[c + 1];
+        double y = rotations[c + 2];
+        double z = rotations[c + 3];
+
+        double[] sum = new double[3];
+        accumulateRelativeLog(w, x, y, z, (i + 1) * 4, sum);
+        accumulateRelativeLog(w, x, y, z, (i - 1) * 4, sum);
+
+        // exp((0, v)) = (cos|v|, v/|v| * sin|v|)
+        double vx = -sum[0] / 4;
+        double vy = -sum[1] / 4;
+        double vz = -sum[2] / 4;
+        double length = Math.sqrt(vx * vx + vy * vy + vz * vz);
+        double ew = Math.cos(length);
+        double scale = length > EPSILON ? Math.sin(length) / length : 1.0;
+        double ex = vx * scale;
+        double ey = vy * scale;
+        double ez = vz * scale;
+
+        // q_i * e
+        controls[c] = w * ew - x * ex - y * ey - z * ez;
+        controls[c + 1] = w * ex + x * ew + y * ez - z * ey;
+        controls[c + 2] = w * ey - x * ez + y * ew + z * ex;
+        controls[c + 3] = w * ez + x * ey - y * ex + z * ew;
+    }
+
+    /**
+     * 将 log(q^-1 * rotations[other]) 的向量部分累加到 sum 中
+     */
+    private void accumulateRelativeLog(double w, double x, double y, double z, int other, double[] sum) {
+        double ow = rotations[other];
+        double ox = rotations[other + 1];
+        double oy = rotations[other + 2];
+        double oz = rotations[other + 3];
+
+        // 单位四元数的逆即共轭 (w, -x, -y, -z)
+        double rw = w * ow + x * ox + y * oy + z * oz;
+        double rx = w * ox - x * ow - y * oz + z * oy;
+        double ry = w * oy + x * oz - y * ow - z * ox;
+        double rz = w * oz - x * oy + y * ox - z * ow;
+
+        double length = Math.sqrt(rx * rx + ry * ry + rz * rz);
+        if (length < EPSILON) {
+            return;
+        }
+        double scale = Math.atan2(length, rw) / length;
+        sum[0] += rx * scale;
+        sum[1] += ry * scale;
+        sum[2] += rz * scale;
+    }
+
+    /**
+     * 将偏航/俯仰/翻滚角转换为四元数
+     * 旋转顺序为 偏航(绕Y，取反使偏航角0朝向+Z、90朝向-X) * 俯仰(绕X) * 翻滚(绕Z)
+     */
+    static void fromAngles(float yaw, float pitch, float roll, double[] out, int offset) {
+        double halfYaw = Math.toRadians(-yaw) / 2;
+        double halfPitch = Math.toRadians(pitch) / 2;
+        double halfRoll = Math.toRadians(roll) / 2;
+        double cy = Math.cos(halfYaw);
+        double sy = Math.sin(halfYaw);
+        double cp = Math.cos(halfPitch);
+        double sp = Math.sin(halfPitch);
+        double cr = Math.cos(halfRoll);
+        double sr = Math.sin(halfRoll);
+
+        out[offset] = cy * cp * cr + sy * sp * sr;
+        out[offset + 1] = cy * sp * cr + sy * cp * sr;
+        out[offset + 2] = sy * cp * cr - cy * sp * sr;
+        out[offset + 3] = cy * cp * sr - sy * sp * cr;
+    }
+
+    private static double dot(double[] a, int i, double[] b, int j) {
+        return a[i] * b[j] + a[i + 1] * b[j + 1] + a[i + 2] * b[j + 2] + a[i + 3] * b[j + 3];
+    }
+
+    /**
+     * 两个单位四元数之间的夹角
+     */
+    private static double angle(double dot) {
+        return Math.acos(Math.max(-1.0, Math.min(1.0, dot)));
+    }
+
+    /**
+     * slerp权重 sin(t*theta)/sin(theta)，夹角很小时退化为线性插值
+     */
+    private static double weight(double theta, double t) {
+        double sin = Math.sin(theta);
+        if (sin < EPSILON) {
+            return t;
+        }
+        return Math.sin(t * theta) / sin;
+    }
+}
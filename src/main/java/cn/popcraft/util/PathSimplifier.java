@@ -0,0 +1,307 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPose;
+import cn.popcraft.model.CameraPreset;
+import cn.popcraft.model.Easing;
+import cn.popcraft.model.KeyframeTrack;
+import cn.popcraft.model.PathMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路径简化器，使用Ramer-Douglas-Peucker算法移除预设中多余的路径点
+ * 距离按时间同步计算：被移除的点在原时间点上的姿态，与合并后段落在同一时间点的姿态比较，
+ * 合并段落的持续时间为原段落之和，缓动曲线不同的相邻段落不会合并
+ * RDP按直线和逐角度插值估计误差，样条路径移除一个点会改变相邻段落的曲线，朝向也以四元数插值，
+ * 因此之后按预设的路径模式编译简化前后的路径，在每个原路径点和原段落中点的时间比较两者的姿态，
+ * 每个合并后的段落中误差最大且超出容差的比较点，恢复其在时间上最近的被移除点，再重新比较，直到所有比较点都在容差范围内
+ * 每轮需要重新编译整条路径，因此一轮在所有超出容差的段落中同时恢复，而不是整条路径只恢复一个点
+ */
+public final class PathSimplifier {
+
+    private PathSimplifier() {
+    }
+
+    /**
+     * 简化预设路径，直接修改预设
+     * @param preset 相机预设
+     * @param positionTolerance 坐标容差(方块)
+     * @param angleTolerance 视角容差(度)
+     * @return 移除的路径点数量
+     */
+    public static int simplify(CameraPreset preset, double positionTolerance, double angleTolerance) {
+        KeyframeTrack keyframes = preset.getKeyframes();
+        int count = keyframes.size();
+        List<CameraPreset.SegmentInfo> segments = preset.getSegmentInfos();
+        if (count < 3 || segments.size() != count - 1) {
+            return 0;
+        }
+
+        // 每个路径点的时间
+        long[] times = new long[count];
+        for (int i = 1; i < count; i++) {
+            times[i] = times[i - 1] + segments.get(i - 1).getDuration();
+        }
+
+        boolean[] keep = new boolean[count];
+        keep[0] = true;
+        keep[count - 1] = true;
+        // 缓动曲线变化的位置必须保留
+        for (int i = 1; i < count - 1; i++) {
+            if (!segments.get(i - 1).getEasing().equals(segments.get(i).getEasing())) {
+                keep[i] = true;
+            }
+        }
+
+        // 对每一段必须保留的点之间分别执行RDP，使用显式栈避免长路径递归过深
+        int[] stack = new int[count * 2];
+        int start = 0;
+        for (int end = 1; end < count; end++) {
+            if (!keep[end]) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = start;
+            stack[top++] = end;
+            while (top > 0) {
+                int last = stack[--top];
+                int first = stack[--top];
+                int split = findSplit(keyframes, times, segments.get(first).getEasing(),
+                    first, last, positionTolerance, angleTolerance);
+                if (split >= 0) {
+                    keep[split] = true;
+                    stack[top++] = first;
+                    stack[top++] = split;
+                    stack[top++] = split;
+                    stack[top++] = last;
+                }
+            }
+            start = end;
+        }
+
+        // 每轮至少恢复一个点，全部恢复时两条路径相同，因此循环一定结束
+        CompiledTimeline original = compile(keyframes, segments, preset.getPathMode());
+        int restored;
+        do {
+            restored = restoreViolations(original, keyframes, segments, times, keep, preset.getPathMode(),
+                positionTolerance, angleTolerance);
+        } while (restored > 0);
+
+        KeyframeTrack simplified = buildKeyframes(keyframes, keep);
+        int removed = count - simplified.size();
+        if (removed > 0) {
+            preset.setPath(simplified, buildSegments(segments, times, keep));
+        }
+        return removed;
+    }
+
+    /**
+     * 按路径模式比较简化前后的路径，在每个超出容差的合并段落中，恢复误差最大的比较点在时间上最近的被移除点
+     * @return 本轮恢复的点数，全部在容差内时返回0
+     */
+    private static int restoreViolations(CompiledTimeline original, KeyframeTrack keyframes,
+                                         List<CameraPreset.SegmentInfo> segments, long[] times, boolean[] keep,
+                                         PathMode pathMode, double positionTolerance, double angleTolerance) {
+        int count = keyframes.size();
+        // 每个位置之前(含)和之后(含)最近的被移除点，按本轮开始时的状态计算
+        int[] previousRemoved = new int[count];
+        int[] nextRemoved = new int[count];
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            if (!keep[i]) {
+                previous = i;
+            }
+            previousRemoved[i] = previous;
+        }
+        if (previous < 0) {
+            return 0;
+        }
+        int next = -1;
+        for (int i = count - 1; i >= 0; i--) {
+            if (!keep[i]) {
+                next = i;
+            }
+            nextRemoved[i] = next;
+        }
+
+        CompiledTimeline candidate = compile(buildKeyframes(keyframes, keep), buildSegments(segments, times, keep), pathMode);
+        CameraPose expected = new CameraPose();
+        CameraPose actual = new CameraPose();
+        boolean[] restore = new boolean[count];
+        int restored = 0;
+        int spanRestore = -1; // 当前合并段落中误差最大的比较点对应的恢复点
+        double spanError = 1.0;
+        for (int i = 0; i < count - 1; i++) {
+            if (keep[i]) {
+                // 进入新的合并段落，结算上一个段落
+                restored += mark(restore, spanRestore);
+                spanRestore = -1;
+                spanError = 1.0;
+            }
+            // 比较原路径点和原段落中点，保留的路径点在两条路径上相同，不需要比较
+            for (int half = keep[i] ? 1 : 0; half < 2; half++) {
+                long time = half == 0 ? times[i] : (times[i] + times[i + 1]) / 2;
+                original.sampleExact(time * 1_000_000L, expected);
+                candidate.sampleExact(time * 1_000_000L, actual);
+                double error = poseError(expected, actual, positionTolerance, angleTolerance);
+                if (error > spanError) {
+                    spanError = error;
+                    spanRestore = nearest(times, time, previousRemoved[i], nextRemoved[half == 0 ? i : i + 1]);
+                }
+            }
+        }
+        restored += mark(restore, spanRestore);
+        for (int i = 0; i < count; i++) {
+            if (restore[i]) {
+                keep[i] = true;
+            }
+        }
+        return restored;
+    }
+
+    private static int mark(boolean[] restore, int index) {
+        if (index < 0 || restore[index]) {
+            return 0;
+        }
+        restore[index] = true;
+        return 1;
+    }
+
+    /**
+     * 在前后两个候选点中选择时间上更近的一个，不存在的候选点为-1
+     */
+    private static int nearest(long[] times, long time, int before, int after) {
+        if (before < 0) {
+            return after;
+        }
+        if (after < 0) {
+            return before;
+        }
+        return time - times[before] <= times[after] - time ? before : after;
+    }
+
+    private static CompiledTimeline compile(KeyframeTrack keyframes, List<CameraPreset.SegmentInfo> segments,
+                                            PathMode pathMode) {
+        Timeline timeline = new Timeline();
+        timeline.addKeyframes(keyframes);
+        timeline.setPathMode(pathMode);
+        for (int i = 0; i < segments.size(); i++) {
+            timeline.setSegmentTransition(i, segments.get(i).getEasing(), segments.get(i).getDuration());
+        }
+        return timeline.compile();
+    }
+
+    private static KeyframeTrack buildKeyframes(KeyframeTrack keyframes, boolean[] keep) {
+        KeyframeTrack result = new KeyframeTrack(keyframes.size());
+        for (int i = 0; i < keyframes.size(); i++) {
+            if (keep[i]) {
+                result.add(keyframes.getX(i), keyframes.getY(i), keyframes.getZ(i),
+                    keyframes.getYaw(i), keyframes.getPitch(i), keyframes.getRoll(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 为保留的路径点生成段落，合并段落使用第一段的缓动曲线，持续时间为原段落之和
+     */
+    private static List<CameraPreset.SegmentInfo> buildSegments(List<CameraPreset.SegmentInfo> segments, long[] times,
+                                                                boolean[] keep) {
+        List<CameraPreset.SegmentInfo> result = new ArrayList<>();
+        int previous = -1;
+        for (int i = 0; i < keep.length; i++) {
+            if (!keep[i]) {
+                continue;
+            }
+            if (previous >= 0) {
+                result.add(new CameraPreset.SegmentInfo(segments.get(previous).getEasing(), times[i] - times[previous]));
+            }
+            previous = i;
+        }
+        return result;
+    }
+
+    /**
+     * 两个姿态之间的误差，以容差为单位
+     */
+    private static double poseError(CameraPose expected, CameraPose actual, double positionTolerance,
+                                    double angleTolerance) {
+        double dx = expected.getX() - actual.getX();
+        double dy = expected.getY() - actual.getY();
+        double dz = expected.getZ() - actual.getZ();
+        double angleError = Math.max(
+            Math.abs(wrap(expected.getYaw() - actual.getYaw())),
+            Math.max(
+                Math.abs(wrap(expected.getPitch() - actual.getPitch())),
+                Math.abs(wrap(expected.getRoll() - actual.getRoll()))
+            )
+        );
+        return normalizedError(Math.sqrt(dx * dx + dy * dy + dz * dz), angleError, positionTolerance, angleTolerance);
+    }
+
+    private static double normalizedError(double positionError, double angleError, double positionTolerance,
+                                          double angleTolerance) {
+        return Math.max(
+            positionTolerance > 0 ? positionError / positionTolerance : (positionError > 0 ? Double.MAX_VALUE : 0),
+            angleTolerance > 0 ? angleError / angleTolerance : (angleError > 0 ? Double.MAX_VALUE : 0)
+        );
+    }
+
+    /**
+     * 在 (first, last) 之间查找误差最大且超出容差的点
+     * @return 点的索引，全部在容差内时返回-1
+     */
+    private static int findSplit(KeyframeTrack keyframes, long[] times, Easing easing, int first, int last,
+                                 double positionTolerance, double angleTolerance) {
+        long duration = times[last] - times[first];
+        int split = -1;
+        double maxError = 1.0; // 误差以容差为单位，大于1表示超出容差
+        for (int i = first + 1; i < last; i++) {
+            double fraction = duration > 0 ? (double) (times[i] - times[first]) / duration : 1.0;
+            double t = easing.calculateProgress(fraction);
+
+            double dx = keyframes.getX(i) - lerp(keyframes.getX(first), keyframes.getX(last), t);
+            double dy = keyframes.getY(i) - lerp(keyframes.getY(first), keyframes.getY(last), t);
+            double dz = keyframes.getZ(i) - lerp(keyframes.getZ(first), keyframes.getZ(last), t);
+            double positionError = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+            double angleError = Math.max(
+                angleError(keyframes.getYaw(first), keyframes.getYaw(last), keyframes.getYaw(i), t),
+                Math.max(
+                    angleError(keyframes.getPitch(first), keyframes.getPitch(last), keyframes.getPitch(i), t),
+                    angleError(keyframes.getRoll(first), keyframes.getRoll(last), keyframes.getRoll(i), t)
+                )
+            );
+
+            double error = normalizedError(positionError, angleError, positionTolerance, angleTolerance);
+            if (error > maxError) {
+                maxError = error;
+                split = i;
+            }
+        }
+        return split;
+    }
+
+    private static double lerp(double start, double end, double t) {
+        return start + (end - start) * t;
+    }
+
+    /**
+     * 实际角度与按最短方向插值的角度之差(度)
+     */
+    private static double angleError(float start, float end, float actual, double t) {
+        double expected = start + wrap(end - start) * t;
+        return Math.abs(wrap(actual - expected));
+    }
+
+    private static double wrap(double angle) {
+        double wrapped = angle % 360;
+        if (wrapped > 180) {
+            wrapped -= 360;
+        } else if (wrapped < -180) {
+            wrapped += 360;
+        }
+        return wrapped;
+    }
+}
@@ -0,0 +1,198 @@
+package cn.popcraft.util;
+
+/**
+ * 动画播放时钟，以 System.nanoTime 计时，不受系统时间调整影响
+ * 播放位置只在每tick调用 {@link #advance(long)} 时前进，前进的方式由追赶策略决定，
+ * 服务器卡顿或GC停顿之后不会无条件地跳到最新位置
+ * 暂停、继续和跳转只修改时钟本身，配合 {@link CompiledTimeline} 的二分查找采样和动作游标跳转，
+ * 跳转的开销为 O(log n)
+ */
+public class PlaybackClock {
+    // FIXED_STEP 策略每tick前进的时间
+    private static final long TICK_NANOS = 50_000_000L;
+
+    private static volatile CatchUpPolicy defaultPolicy = CatchUpPolicy.SKIP;
+    private static volatile long defaultMaxCatchUpNanos = 100_000_000L;
+
+    private final CatchUpPolicy policy;
+    private final long maxCatchUpNanos;
+    private long positionNanos;
+    private long lastNanos;
+    private boolean paused;
+    private long seekTargetNanos = -1; // 跳转后还未被播放任务处理的目标位置，-1表示没有
+
+    /**
+     * 落后于真实时间时的追赶策略
+     */
+    public enum CatchUpPolicy {
+        /**
+         * 直接跳到真实时间对应的位置，总时长与真实时间一致
+         */
+        SKIP,
+        /**
+         * 每tick最多前进固定的时间，卡顿之后整体延后，画面不会跳跃
+         */
+        STRETCH,
+        /**
+         * 每tick固定前进50毫秒，与真实时间无关，相同的tick序列总是得到相同的画面
+         */
+        FIXED_STEP;
+
+        /**
+         * 解析追赶策略，忽略大小写
+         * @param name 策略名称
+         * @return 策略，无法识别时返回null
+         */
+        public static CatchUpPolicy parse(String name) {
+            if (name == null) {
+                return null;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 创建播放时钟
+     * @param policy 追赶策略
+     * @param maxCatchUpNanos STRETCH 策略每tick最多前进的时间(纳秒)
+     */
+    public PlaybackClock(CatchUpPolicy policy, long maxCatchUpNanos) {
+        this.policy = policy;
+        this.maxCatchUpNanos = Math.max(TICK_NANOS, maxCatchUpNanos);
+    }
+
+    /**
+     * 使用配置中的默认策略创建播放时钟
+     * @return 播放时钟
+     */
+    public static PlaybackClock create() {
+        return new PlaybackClock(defaultPolicy, defaultMaxCatchUpNanos);
+    }
+
+    /**
+     * 设置默认的追赶策略
+     * @param policy 追赶策略
+     * @param maxCatchUpMs STRETCH 策略每tick最多前进的时间(毫秒)
+     */
+    public static void setDefaults(CatchUpPolicy policy, long maxCatchUpMs) {
+        defaultPolicy = policy != null ? policy : CatchUpPolicy.SKIP;
+        defaultMaxCatchUpNanos = maxCatchUpMs * 1_000_000L;
+    }
+
+    /**
+     * 从头开始计时
+     * @param nowNanos 当前时间 System.nanoTime()
+     */
+    public synchronized void start(long nowNanos) {
+        positionNanos = 0;
+        lastNanos = nowNanos;
+        paused = false;
+        seekTargetNanos = -1;
+    }
+
+    /**
+     * 每tick调用一次，按追赶策略前进
+     * @param nowNanos 当前时间 System.nanoTime()
+     * @return 播放位置(纳秒)
+     */
+    public synchronized long advance(long nowNanos) {
+        if (!paused) {
+            long delta = Math.max(0, nowNanos - lastNanos);
+            switch (policy) {
+                case STRETCH:
+                    positionNanos += Math.min(delta, maxCatchUpNanos);
+                    break;
+                case FIXED_STEP:
+                    positionNanos += TICK_NANOS;
+                    break;
+                default:
+                    positionNanos += delta;
+                    break;
+            }
+        }
+        lastNanos = nowNanos;
+        return positionNanos;
+    }
+
+    /**
+     * 估算两次tick之间某一时刻的播放位置，不修改时钟，可以在异步线程调用
+     * @param nowNanos 当前时间 System.nanoTime()
+     * @return 播放位置(纳秒)
+     */
+    public synchronized long estimate(long nowNanos) {
+        if (paused) {
+            return positionNanos;
+        }
+        long delta = Math.max(0, nowNanos - lastNanos);
+        switch (policy) {
+            case STRETCH:
+                return positionNanos + Math.min(delta, maxCatchUpNanos);
+            case FIXED_STEP:
+                return positionNanos + Math.min(delta, TICK_NANOS);
+            default:
+                return positionNanos + delta;
+        }
+    }
+
+    /**
+     * 暂停，播放位置保持不变
+     */
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    /**
+     * 继续播放，暂停期间的时间不计入播放位置
+     */
+    public synchronized void resume() {
+        paused = false;
+    }
+
+    /**
+     * 跳转到指定位置
+     * @param positionMs 播放位置(毫秒)
+     */
+    public synchronized void seek(long positionMs) {
+        positionNanos = Math.max(0, positionMs) * 1_000_000L;
+        seekTargetNanos = positionNanos;
+    }
+
+    /**
+     * 获取上次调用之后跳转到的位置，用于播放任务同步动作游标
+     * 应在 {@link #advance(long)} 之前调用，此时返回的仍是跳转的目标位置，不包含本tick前进的时间
+     * @return 跳转的目标位置(纳秒)，没有发生跳转时返回-1
+     */
+    public synchronized long pollSeek() {
+        long result = seekTargetNanos;
+        seekTargetNanos = -1;
+        return result;
+    }
+
+    /**
+     * 检查是否暂停
+     * @return 是否暂停
+     */
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * 获取当前播放位置
+     * @return 播放位置(纳秒)
+     */
+    public synchronized long getPositionNanos() {
+        return positionNanos;
+    }
+
+    /**
+     * 获取追赶策略
+     * @return 追赶策略
+     */
+    public CatchUpPolicy getPolicy() {
+        return policy;
+    }
+}
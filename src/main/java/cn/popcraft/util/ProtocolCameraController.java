@@ -1,5 +1,6 @@
 package cn.popcraft.util;
 
+import cn.popcraft.model.CameraPose;
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.ProtocolLibrary;
 import com.comphenix.protocol.ProtocolManager;
@@ -7,15 +8,21 @@ import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.wrappers.WrappedDataWatcher;
+import com.comphenix.protocol.wrappers.WrappedWatchableObject;
 import org.bukkit.Location;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -25,14 +32,48 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class ProtocolCameraController {
     private final Plugin plugin;
+    private final CameraTickDriver tickDriver;
+    private final AsyncPoseWorker poseWorker; // 为null时在主线程计算姿态
     private final ProtocolManager protocolManager;
-    private final Map<UUID, CameraSession> cameraSessions = new HashMap<>();
+    // 只在主线程修改，数据包监听器在网络线程中无锁读取
+    private final Map<UUID, CameraSession> cameraSessions = new ConcurrentHashMap<>();
+    private final Map<String, Broadcast> broadcasts = new HashMap<>();
+    private final Map<UUID, Broadcast> broadcastViewers = new ConcurrentHashMap<>(); // 玩家所在的广播
     private final AtomicInteger entityIdCounter = new AtomicInteger(Integer.MAX_VALUE - 10000);
+    private final boolean relativeMoves; // 是否使用相对移动数据包
+    private final int resyncInterval; // 两次强制传送之间最多的相对移动帧数
+    private final double positionEpsilon; // 姿态变化检测的坐标容差
+    private final float angleEpsilon; // 姿态变化检测的视角容差
+    private final int heartbeatInterval; // 连续省略多少帧后强制发送
+    private final CameraPacketStats packetStats = new CameraPacketStats();
+    private List<WrappedWatchableObject> cameraMetadata; // 摄像机实体的元数据，首次生成实体时创建
+    private final CameraPacketSender packetSender;
+    private final PacketAdapter movementListener; // 只在有玩家需要锁定移动时注册
+    private boolean movementListenerRegistered;
+    private int animatingSessions; // 正在播放动画的会话数，只在主线程修改
     
-    public ProtocolCameraController(Plugin plugin) {
+    public ProtocolCameraController(Plugin plugin, CameraTickDriver tickDriver) {
+        this(plugin, tickDriver, null);
+    }
+    
+    /**
+     * 创建摄像机控制器
+     * @param plugin 插件实例
+     * @param tickDriver tick驱动器
+     * @param poseWorker 异步姿态计算器，为null时在主线程计算姿态
+     */
+    public ProtocolCameraController(Plugin plugin, CameraTickDriver tickDriver, AsyncPoseWorker poseWorker) {
         this.plugin = plugin;
+        this.tickDriver = tickDriver;
+        this.poseWorker = poseWorker;
+        this.relativeMoves = plugin.getConfig().getBoolean("settings.packets.relative_moves", true);
+        this.resyncInterval = plugin.getConfig().getInt("settings.packets.resync_interval", 40);
+        this.positionEpsilon = plugin.getConfig().getDouble("settings.packets.position_epsilon", 0.001);
+        this.angleEpsilon = (float) plugin.getConfig().getDouble("settings.packets.angle_epsilon", 0.1);
+        this.heartbeatInterval = plugin.getConfig().getInt("settings.packets.heartbeat_interval", 20);
         this.protocolManager = ProtocolLibrary.getProtocolManager();
-        registerPacketListeners();
+        this.packetSender = new CameraPacketSender(plugin, protocolManager, tickDriver);
+        this.movementListener = createMovementListener();
     }
     
     /**
@@ -43,19 +84,26 @@ public class ProtocolCameraController {
         if (cameraSessions.containsKey(playerId)) {
             return;
         }
+        // 单独的摄像机和广播不能同时使用
+        leaveBroadcast(player);
         
         Location originalLocation = player.getLocation().clone();
         int cameraEntityId = generateEntityId();
         UUID cameraEntityUUID = UUID.randomUUID();
         
-        CameraSession session = new CameraSession(player, originalLocation, cameraEntityId, cameraEntityUUID);
+        CameraSession session = new CameraSession(player, originalLocation, cameraEntityId, cameraEntityUUID,
+            createEncoder(cameraEntityId, relativeMoves));
         cameraSessions.put(playerId, session);
         
         Location eyeLocation = player.getEyeLocation();
         
         try {
-            spawnCameraEntity(player, cameraEntityId, cameraEntityUUID, eyeLocation);
-            sendCameraPacket(player, cameraEntityId);
+            // 生成实体、设置元数据和切换视角作为一组发送，客户端在同一帧中完成，不会看到中间状态
+            packetSender.sendNow(player, Arrays.asList(
+                createSpawnPacket(cameraEntityId, cameraEntityUUID, eyeLocation),
+                createMetadataPacket(cameraEntityId),
+                createCameraPacket(cameraEntityId)
+            ));
         } catch (Exception e) {
             plugin.getLogger().severe("启动摄像机模式失败: " + e.getMessage());
             cameraSessions.remove(playerId);
@@ -71,10 +119,13 @@ public class ProtocolCameraController {
         if (session == null) {
             return;
         }
+        stopAnimation(session);
         
         try {
-            sendCameraPacket(player, player.getEntityId());
-            destroyCameraEntity(player, session.getCameraEntityId());
+            packetSender.sendNow(player, Arrays.asList(
+                createCameraPacket(player.getEntityId()),
+                createDestroyPacket(session.getCameraEntityId())
+            ));
         } catch (Exception e) {
             plugin.getLogger().severe("停止摄像机模式失败: " + e.getMessage());
         }
@@ -90,45 +141,360 @@ public class ProtocolCameraController {
             return;
         }
         
-        session.setCurrentLocation(location.clone());
-        teleportCameraEntity(player, session.getCameraEntityId(), location);
+        session.getCurrentPose().set(location);
+        teleportCameraEntity(player, session, session.getCurrentPose());
     }
     
     /**
-     * 播放摄像机动画
+     * 设置摄像机姿态，姿态数值会被复制到会话中
      */
-    public void playCameraAnimation(Player player, cn.popcraft.util.Timeline timeline, long duration) {
+    public void setCameraPosition(Player player, CameraPose pose) {
         UUID playerId = player.getUniqueId();
         CameraSession session = cameraSessions.get(playerId);
         if (session == null) {
             return;
         }
         
-        session.setAnimating(true);
+        session.getCurrentPose().set(pose);
+        teleportCameraEntity(player, session, pose);
+    }
+    
+    /**
+     * 播放摄像机动画
+     */
+    public void playCameraAnimation(Player player, CompiledTimeline timeline, long duration) {
+        PlaybackClock clock = PlaybackClock.create();
+        clock.start(System.nanoTime());
+        playCameraAnimation(player, timeline, duration, clock);
+    }
+    
+    /**
+     * 按指定的播放时钟播放摄像机动画，暂停、继续和跳转通过时钟控制
+     */
+    public void playCameraAnimation(Player player, CompiledTimeline timeline, long duration, PlaybackClock clock) {
+        playCameraAnimation(player, timeline, duration, clock, null);
+    }
+    
+    /**
+     * 按指定的播放时钟播放摄像机动画
+     * @param onFinished 动画结束、被停止或被替换时在主线程调用，可以为null
+     * @return 玩家不在摄像机模式中时返回false，此时不会调用 onFinished
+     */
+    public boolean playCameraAnimation(Player player, CompiledTimeline timeline, long duration, PlaybackClock clock,
+                                       Runnable onFinished) {
+        UUID playerId = player.getUniqueId();
+        CameraSession session = cameraSessions.get(playerId);
+        if (session == null) {
+            return false;
+        }
+        
+        // 同一玩家同时只播放一个动画
+        stopAnimation(session);
+        setAnimating(session, true);
+        
+        CameraTickDriver.Entry animation;
+        if (poseWorker != null) {
+            animation = createAsyncAnimation(player, session, timeline, duration, clock, onFinished);
+        } else {
+            animation = new CameraTickDriver.Entry() {
+                private final long durationNanos = duration * 1_000_000L;
+                private final CameraPose pose = session.getCurrentPose();
+                private final ActionDispatcher actions = new ActionDispatcher(player, timeline);
+                
+                @Override
+                protected boolean tick(long nowNanos) {
+                    long seekNanos = clock.pollSeek();
+                    if (seekNanos >= 0) {
+                        // 在前进之前处理跳转，从目标位置开始触发动作
+                        actions.seek(seekNanos / 1_000_000L - 1);
+                    }
+                    long elapsedNanos = clock.advance(nowNanos);
+                    
+                    // 直接采样到会话的姿态中，整个过程不创建位置对象
+                    if (timeline.sampleInto(elapsedNanos, pose)) {
+                        teleportCameraEntity(player, session, pose);
+                    }
+                    actions.dispatch(elapsedNanos / 1_000_000L);
+                    
+                    return elapsedNanos < durationNanos;
+                }
+                
+                @Override
+                protected void onRemoved() {
+                    finishAnimation(session, this);
+                    actions.finish();
+                    if (onFinished != null) {
+                        onFinished.run();
+                    }
+                }
+            };
+        }
+        session.setAnimation(animation);
+        tickDriver.add(animation);
+        return true;
+    }
+    
+    /**
+     * 创建姿态由异步线程计算的动画，主线程只分发文本和命令并在结束时发送最终姿态
+     */
+    private CameraTickDriver.Entry createAsyncAnimation(Player player, CameraSession session,
+                                                        CompiledTimeline timeline, long duration, PlaybackClock clock,
+                                                        Runnable onFinished) {
+        long durationNanos = duration * 1_000_000L;
+        
+        // 以编码器为锁，主线程发送的姿态不会插入计算线程的编码和发送之间
+        AsyncPoseWorker.Job job = new AsyncPoseWorker.Job(session.getEncoder()) {
+            @Override
+            protected boolean computeFrame(long nowNanos, CameraPose out) {
+                // 主线程每tick推进时钟，这里估算两次tick之间的位置
+                return timeline.sampleInto(clock.estimate(nowNanos), out);
+            }
+            
+            @Override
+            protected void send(CameraPose pose) {
+                // 只有真正发送的姿态经过编码器，合并丢弃的姿态不会推进相对移动的基准位置
+                teleportCameraEntity(player, session, pose);
+            }
+        };
+        poseWorker.add(job);
+        
+        return new CameraTickDriver.Entry() {
+            private final ActionDispatcher actions = new ActionDispatcher(player, timeline);
+            
+            @Override
+            protected boolean tick(long nowNanos) {
+                long seekNanos = clock.pollSeek();
+                if (seekNanos >= 0) {
+                    actions.seek(seekNanos / 1_000_000L - 1);
+                }
+                long elapsedNanos = clock.advance(nowNanos);
+                actions.dispatch(elapsedNanos / 1_000_000L);
+                
+                if (elapsedNanos < durationNanos) {
+                    return true;
+                }
+                // 计算线程可能没有生成结束时的帧，在主线程补发最终姿态
+                poseWorker.remove(job);
+                if (timeline.sampleInto(durationNanos, session.getCurrentPose())) {
+                    teleportCameraEntity(player, session, session.getCurrentPose());
+                }
+                return false;
+            }
+            
+            @Override
+            protected void onRemoved() {
+                poseWorker.remove(job);
+                finishAnimation(session, this);
+                actions.finish();
+                if (onFinished != null) {
+                    onFinished.run();
+                }
+            }
+        };
+    }
+    
+    /**
+     * 开始广播动画，所有观众共用一个摄像机实体和一条路径
+     * 每帧只采样和编码一次，同一个数据包发送给所有观众，观众可以在播放过程中加入或离开
+     * @param name 广播名称，同名的广播会先被停止
+     * @param timeline 编译后的时间轴
+     * @param duration 持续时间(毫秒)
+     * @param origin 时间轴没有路径时摄像机所在的位置
+     */
+    public void startBroadcast(String name, CompiledTimeline timeline, long duration, Location origin) {
+        stopBroadcast(name);
+        
+        int cameraEntityId = generateEntityId();
+        Broadcast broadcast = new Broadcast(name, cameraEntityId, UUID.randomUUID(),
+            createEncoder(cameraEntityId, relativeMoves), origin);
+        PlaybackClock clock = PlaybackClock.create();
+        clock.start(System.nanoTime());
+        // 先采样起点，第一批观众直接在起点生成摄像机实体
+        timeline.sampleInto(0, broadcast.getSentPose());
         
-        new BukkitRunnable() {
-            private long startTime = System.currentTimeMillis();
-            private long endTime = startTime + duration;
+        broadcast.setAnimation(new CameraTickDriver.Entry() {
+            private final long durationNanos = duration * 1_000_000L;
+            private final CameraPose pose = new CameraPose();
+            private final ActionDispatcher actions = new ActionDispatcher(broadcast.getViewers().values(), timeline);
             
             @Override
-            public void run() {
-                long currentTime = System.currentTimeMillis();
-                if (currentTime >= endTime || !cameraSessions.containsKey(playerId)) {
-                    session.setAnimating(false);
-                    cancel();
-                    return;
+            protected boolean tick(long nowNanos) {
+                long seekNanos = clock.pollSeek();
+                if (seekNanos >= 0) {
+                    actions.seek(seekNanos / 1_000_000L - 1);
                 }
+                long elapsedNanos = clock.advance(nowNanos);
                 
-                long elapsed = currentTime - startTime;
-                Location currentLocation = timeline.getLocationAt(elapsed);
-                if (currentLocation != null) {
-                    if (currentLocation.getWorld() == null) {
-                        currentLocation.setWorld(player.getWorld());
+                // 路径计算和编码与观众数量无关，之后只是把同一个数据包交给每个观众
+                if (timeline.sampleInto(elapsedNanos, pose)) {
+                    PacketContainer packet = broadcast.getEncoder().encode(pose);
+                    if (packet != null) {
+                        broadcast.getSentPose().set(pose);
+                        for (Player viewer : broadcast.getViewers().values()) {
+                            sendPacket(viewer, packet);
+                        }
                     }
-                    setCameraPosition(player, currentLocation);
+                }
+                actions.dispatch(elapsedNanos / 1_000_000L);
+                
+                return elapsedNanos < durationNanos;
+            }
+            
+            @Override
+            protected void onRemoved() {
+                actions.finish();
+                // 自然结束时释放所有观众，被 stopBroadcast 移除时观众已经释放
+                if (broadcasts.get(name) == broadcast) {
+                    broadcasts.remove(name);
+                    releaseViewers(broadcast);
                 }
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        });
+        broadcasts.put(name, broadcast);
+        tickDriver.add(broadcast.getAnimation());
+    }
+    
+    /**
+     * 让玩家加入广播，玩家的摄像机实体生成在广播当前的位置，之后接收与其他观众相同的数据包
+     * @param name 广播名称
+     * @param player 玩家
+     * @return 广播不存在时返回false
+     */
+    public boolean joinBroadcast(String name, Player player) {
+        Broadcast broadcast = broadcasts.get(name);
+        if (broadcast == null) {
+            return false;
+        }
+        if (broadcastViewers.get(player.getUniqueId()) == broadcast) {
+            return true;
+        }
+        leaveBroadcast(player);
+        stopCameraMode(player);
+        
+        broadcast.getViewers().put(player.getUniqueId(), player);
+        broadcastViewers.put(player.getUniqueId(), broadcast);
+        updateMovementListener();
+        try {
+            // 生成位置就是最近一次发送的姿态，之后的相对移动对新观众同样成立
+            packetSender.sendNow(player, Arrays.asList(
+                createSpawnPacket(broadcast.getCameraEntityId(), broadcast.getCameraEntityUUID(),
+                    broadcast.getSentPose().applyTo(broadcast.getSpawnLocation())),
+                createMetadataPacket(broadcast.getCameraEntityId()),
+                createCameraPacket(broadcast.getCameraEntityId())
+            ));
+        } catch (Exception e) {
+            plugin.getLogger().severe("加入广播失败: " + e.getMessage());
+            broadcast.getViewers().remove(player.getUniqueId());
+            broadcastViewers.remove(player.getUniqueId());
+            updateMovementListener();
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * 让玩家离开所在的广播并恢复视角，广播继续为其他观众播放
+     * @param player 玩家
+     */
+    public void leaveBroadcast(Player player) {
+        Broadcast broadcast = broadcastViewers.remove(player.getUniqueId());
+        if (broadcast == null) {
+            return;
+        }
+        broadcast.getViewers().remove(player.getUniqueId());
+        updateMovementListener();
+        releaseViewer(player, broadcast);
+    }
+    
+    /**
+     * 停止广播并恢复所有观众的视角
+     * @param name 广播名称
+     */
+    public void stopBroadcast(String name) {
+        Broadcast broadcast = broadcasts.remove(name);
+        if (broadcast == null) {
+            return;
+        }
+        tickDriver.remove(broadcast.getAnimation());
+        releaseViewers(broadcast);
+    }
+    
+    /**
+     * 检查玩家是否在观看广播
+     */
+    public boolean isInBroadcast(Player player) {
+        return broadcastViewers.containsKey(player.getUniqueId());
+    }
+    
+    /**
+     * 获取广播的观众数量
+     * @param name 广播名称
+     * @return 观众数量，广播不存在时返回-1
+     */
+    public int getBroadcastViewerCount(String name) {
+        Broadcast broadcast = broadcasts.get(name);
+        return broadcast != null ? broadcast.getViewers().size() : -1;
+    }
+    
+    private void releaseViewers(Broadcast broadcast) {
+        for (Player viewer : broadcast.getViewers().values()) {
+            broadcastViewers.remove(viewer.getUniqueId());
+            releaseViewer(viewer, broadcast);
+        }
+        broadcast.getViewers().clear();
+        updateMovementListener();
+    }
+    
+    /**
+     * 恢复观众的视角并删除其客户端中的广播摄像机实体
+     */
+    private void releaseViewer(Player player, Broadcast broadcast) {
+        if (!player.isOnline()) {
+            return;
+        }
+        try {
+            packetSender.sendNow(player, Arrays.asList(
+                createCameraPacket(player.getEntityId()),
+                createDestroyPacket(broadcast.getCameraEntityId())
+            ));
+        } catch (Exception e) {
+            plugin.getLogger().severe("离开广播失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 停止会话当前的动画，动画状态立即清除，不等待驱动器延迟移除
+     */
+    private void stopAnimation(CameraSession session) {
+        session.stopAnimation(tickDriver);
+        setAnimating(session, false);
+    }
+    
+    /**
+     * 动画被驱动器移除时调用，动画已经被替换或停止时不修改会话状态
+     */
+    private void finishAnimation(CameraSession session, CameraTickDriver.Entry animation) {
+        if (session.getAnimation() == animation) {
+            session.setAnimation(null);
+            setAnimating(session, false);
+        }
+    }
+    
+    private void setAnimating(CameraSession session, boolean animating) {
+        if (session.isAnimating() == animating) {
+            return;
+        }
+        session.setAnimating(animating);
+        animatingSessions += animating ? 1 : -1;
+        updateMovementListener();
+    }
+    
+    /**
+     * 获取摄像机数据包统计
+     * @return 数据包统计
+     */
+    public CameraPacketStats getPacketStats() {
+        return packetStats;
     }
     
     /**
@@ -147,20 +513,43 @@ public class ProtocolCameraController {
         return session != null && session.isAnimating();
     }
     
+    /**
+     * 检查是否需要忽略玩家的移动数据包，播放动画或观看广播时客户端的移动不应生效
+     * 在网络线程中对每个移动数据包调用，只读取并发映射和volatile字段，不加锁
+     */
+    private boolean isMovementLocked(Player player) {
+        return isAnimating(player) || broadcastViewers.containsKey(player.getUniqueId());
+    }
+    
     /**
      * 清理所有摄像机会话
      */
     public void cleanup() {
-        for (UUID playerId : new HashMap<>(cameraSessions).keySet()) {
+        for (String name : new ArrayList<>(broadcasts.keySet())) {
+            stopBroadcast(name);
+        }
+        // 并发映射的迭代器允许在遍历时移除
+        for (UUID playerId : cameraSessions.keySet()) {
             Player player = plugin.getServer().getPlayer(playerId);
             if (player != null) {
                 stopCameraMode(player);
             } else {
-                cameraSessions.remove(playerId);
+                CameraSession session = cameraSessions.remove(playerId);
+                if (session != null) {
+                    stopAnimation(session);
+                }
             }
         }
     }
     
+    /**
+     * 按配置创建摄像机实体的数据包编码器
+     */
+    private CameraPacketEncoder createEncoder(int entityId, boolean relative) {
+        return new CameraPacketEncoder(protocolManager, entityId, relative, resyncInterval,
+            positionEpsilon, angleEpsilon, heartbeatInterval, packetStats);
+    }
+    
     /**
      * 生成唯一的实体ID
      */
@@ -169,28 +558,42 @@ public class ProtocolCameraController {
     }
     
     /**
-     * 生成摄像机实体(ArmorStand)
+     * 创建摄像机实体(ArmorStand)的生成数据包
      */
-    private void spawnCameraEntity(Player player, int entityId, UUID entityUUID, Location location) {
-        try {
-            PacketContainer spawnPacket = protocolManager.createPacket(PacketType.Play.Server.SPAWN_ENTITY);
-            
-            spawnPacket.getIntegers().write(0, entityId);
-            spawnPacket.getUUIDs().write(0, entityUUID);
-            spawnPacket.getEntityTypeModifier().write(0, EntityType.ARMOR_STAND);
-            
-            spawnPacket.getDoubles().write(0, location.getX());
-            spawnPacket.getDoubles().write(1, location.getY());
-            spawnPacket.getDoubles().write(2, location.getZ());
-            
-            int yaw = (int) (location.getYaw() * 256.0F / 360.0F);
-            int pitch = (int) (location.getPitch() * 256.0F / 360.0F);
-            spawnPacket.getIntegers().write(1, yaw);
-            spawnPacket.getIntegers().write(2, pitch);
-            spawnPacket.getIntegers().write(3, 0);
-            
-            protocolManager.sendServerPacket(player, spawnPacket);
-            
+    private PacketContainer createSpawnPacket(int entityId, UUID entityUUID, Location location) {
+        PacketContainer spawnPacket = protocolManager.createPacket(PacketType.Play.Server.SPAWN_ENTITY);
+        
+        spawnPacket.getIntegers().write(0, entityId);
+        spawnPacket.getUUIDs().write(0, entityUUID);
+        spawnPacket.getEntityTypeModifier().write(0, EntityType.ARMOR_STAND);
+        
+        spawnPacket.getDoubles().write(0, location.getX());
+        spawnPacket.getDoubles().write(1, location.getY());
+        spawnPacket.getDoubles().write(2, location.getZ());
+        
+        int yaw = (int) (location.getYaw() * 256.0F / 360.0F);
+        int pitch = (int) (location.getPitch() * 256.0F / 360.0F);
+        spawnPacket.getIntegers().write(1, yaw);
+        spawnPacket.getIntegers().write(2, pitch);
+        spawnPacket.getIntegers().write(3, 0);
+        return spawnPacket;
+    }
+    
+    /**
+     * 创建摄像机实体的元数据数据包(不可见、无重力的小型盔甲架)
+     */
+    private PacketContainer createMetadataPacket(int entityId) {
+        PacketContainer metadataPacket = protocolManager.createPacket(PacketType.Play.Server.ENTITY_METADATA);
+        metadataPacket.getIntegers().write(0, entityId);
+        metadataPacket.getWatchableCollectionModifier().write(0, getCameraMetadata());
+        return metadataPacket;
+    }
+    
+    /**
+     * 获取摄像机实体的元数据，所有摄像机实体相同，只在第一次调用时构建
+     */
+    private List<WrappedWatchableObject> getCameraMetadata() {
+        if (cameraMetadata == null) {
             WrappedDataWatcher watcher = new WrappedDataWatcher();
             
             byte flags = 0x20;
@@ -199,107 +602,95 @@ public class ProtocolCameraController {
             byte armorStandFlags = 0x10 | 0x08 | 0x01;
             watcher.setObject(new WrappedDataWatcher.WrappedDataWatcherObject(15, WrappedDataWatcher.Registry.get(Byte.class)), armorStandFlags);
             
-            PacketContainer metadataPacket = protocolManager.createPacket(PacketType.Play.Server.ENTITY_METADATA);
-            metadataPacket.getIntegers().write(0, entityId);
-            metadataPacket.getWatchableCollectionModifier().write(0, watcher.getWatchableObjects());
-            
-            protocolManager.sendServerPacket(player, metadataPacket);
-            
-        } catch (Exception e) {
-            plugin.getLogger().severe("生成摄像机实体失败: " + e.getMessage());
-            throw new RuntimeException(e);
+            cameraMetadata = watcher.getWatchableObjects();
         }
+        return cameraMetadata;
     }
     
     /**
-     * 传送摄像机实体到指定位置
+     * 移动摄像机实体到指定姿态，位移较小时发送相对移动，否则发送传送，姿态没有变化时不发送
      */
-    private void teleportCameraEntity(Player player, int entityId, Location location) {
+    private void teleportCameraEntity(Player player, CameraSession session, CameraPose pose) {
+        CameraPacketEncoder encoder = session.getEncoder();
         try {
-            PacketContainer teleportPacket = protocolManager.createPacket(PacketType.Play.Server.ENTITY_TELEPORT);
-            
-            teleportPacket.getIntegers().write(0, entityId);
-            teleportPacket.getDoubles().write(0, location.getX());
-            teleportPacket.getDoubles().write(1, location.getY());
-            teleportPacket.getDoubles().write(2, location.getZ());
-            
-            byte yaw = (byte) (location.getYaw() * 256.0F / 360.0F);
-            byte pitch = (byte) (location.getPitch() * 256.0F / 360.0F);
-            teleportPacket.getBytes().write(0, yaw);
-            teleportPacket.getBytes().write(1, pitch);
-            
-            teleportPacket.getBooleans().write(0, false);
-            
-            protocolManager.sendServerPacket(player, teleportPacket);
-            
+            if (poseWorker != null && poseWorker.isSendAsync()) {
+                // 计算线程也会直接发送，编码和发送在编码器的锁内完成，数据包按编码顺序送达
+                synchronized (encoder) {
+                    PacketContainer packet = encoder.encode(pose);
+                    if (packet != null) {
+                        packetSender.sendNow(player, Collections.singletonList(packet));
+                    }
+                }
+                return;
+            }
+            PacketContainer packet = encoder.encode(pose);
+            if (packet != null) {
+                sendPacket(player, packet);
+            }
         } catch (Exception e) {
             plugin.getLogger().severe("传送摄像机实体失败: " + e.getMessage());
         }
     }
     
     /**
-     * 发送Camera数据包切换玩家视角
+     * 发送数据包，在相机tick中产生的数据包会在tick结束时与同一玩家的其他数据包一起发送
      */
-    private void sendCameraPacket(Player player, int targetEntityId) {
-        try {
-            PacketContainer cameraPacket = protocolManager.createPacket(PacketType.Play.Server.CAMERA);
-            cameraPacket.getIntegers().write(0, targetEntityId);
-            protocolManager.sendServerPacket(player, cameraPacket);
-        } catch (Exception e) {
-            plugin.getLogger().severe("发送Camera数据包失败: " + e.getMessage());
-            throw new RuntimeException(e);
-        }
+    private void sendPacket(Player player, PacketContainer packet) {
+        packetSender.send(player, packet);
     }
     
     /**
-     * 销毁摄像机实体
+     * 创建Camera数据包，切换玩家的视角实体
      */
-    private void destroyCameraEntity(Player player, int entityId) {
-        try {
-            PacketContainer destroyPacket = protocolManager.createPacket(PacketType.Play.Server.ENTITY_DESTROY);
-            destroyPacket.getIntLists().write(0, java.util.Collections.singletonList(entityId));
-            protocolManager.sendServerPacket(player, destroyPacket);
-        } catch (Exception e) {
-            plugin.getLogger().severe("销毁摄像机实体失败: " + e.getMessage());
-        }
+    private PacketContainer createCameraPacket(int targetEntityId) {
+        PacketContainer cameraPacket = protocolManager.createPacket(PacketType.Play.Server.CAMERA);
+        cameraPacket.getIntegers().write(0, targetEntityId);
+        return cameraPacket;
     }
     
     /**
-     * 注册数据包监听器 - 防止动画期间客户端移动干扰
+     * 创建摄像机实体的销毁数据包
      */
-    private void registerPacketListeners() {
-        protocolManager.addPacketListener(new PacketAdapter(plugin, PacketType.Play.Client.POSITION) {
-            @Override
-            public void onPacketReceiving(PacketEvent event) {
-                Player player = event.getPlayer();
-                CameraSession session = cameraSessions.get(player.getUniqueId());
-                if (session != null && session.isAnimating()) {
-                    event.setCancelled(true);
-                }
-            }
-        });
-        
-        protocolManager.addPacketListener(new PacketAdapter(plugin, PacketType.Play.Client.POSITION_LOOK) {
+    private PacketContainer createDestroyPacket(int entityId) {
+        PacketContainer destroyPacket = protocolManager.createPacket(PacketType.Play.Server.ENTITY_DESTROY);
+        destroyPacket.getIntLists().write(0, Collections.singletonList(entityId));
+        return destroyPacket;
+    }
+    
+    /**
+     * 创建移动数据包监听器 - 防止动画期间客户端移动干扰
+     */
+    private PacketAdapter createMovementListener() {
+        return new PacketAdapter(plugin, PacketType.Play.Client.POSITION, PacketType.Play.Client.POSITION_LOOK,
+                PacketType.Play.Client.LOOK) {
             @Override
             public void onPacketReceiving(PacketEvent event) {
-                Player player = event.getPlayer();
-                CameraSession session = cameraSessions.get(player.getUniqueId());
-                if (session != null && session.isAnimating()) {
+                if (isMovementLocked(event.getPlayer())) {
                     event.setCancelled(true);
                 }
             }
-        });
-        
-        protocolManager.addPacketListener(new PacketAdapter(plugin, PacketType.Play.Client.LOOK) {
-            @Override
-            public void onPacketReceiving(PacketEvent event) {
-                Player player = event.getPlayer();
-                CameraSession session = cameraSessions.get(player.getUniqueId());
-                if (session != null && session.isAnimating()) {
-                    event.setCancelled(true);
-                }
+        };
+    }
+    
+    /**
+     * 只在有玩家播放动画或观看广播时注册移动数据包监听器，其余时间服务器上的移动数据包不经过本插件
+     * 必须在主线程调用
+     */
+    private void updateMovementListener() {
+        boolean needed = animatingSessions > 0 || !broadcastViewers.isEmpty();
+        if (needed == movementListenerRegistered) {
+            return;
+        }
+        try {
+            if (needed) {
+                protocolManager.addPacketListener(movementListener);
+            } else {
+                protocolManager.removePacketListener(movementListener);
             }
-        });
+            movementListenerRegistered = needed;
+        } catch (Exception e) {
+            plugin.getLogger().severe("更新数据包监听器失败: " + e.getMessage());
+        }
     }
     
     /**
@@ -310,15 +701,19 @@ public class ProtocolCameraController {
         private final Location originalLocation;
         private final int cameraEntityId;
         private final UUID cameraEntityUUID;
-        private Location currentLocation;
-        private boolean animating = false;
+        private final CameraPose currentPose;
+        private final CameraPacketEncoder encoder;
+        private volatile boolean animating = false; // 在网络线程中读取
+        private CameraTickDriver.Entry animation; // 当前播放的动画
         
-        public CameraSession(Player player, Location originalLocation, int cameraEntityId, UUID cameraEntityUUID) {
+        public CameraSession(Player player, Location originalLocation, int cameraEntityId, UUID cameraEntityUUID,
+                             CameraPacketEncoder encoder) {
             this.player = player;
+            this.encoder = encoder;
             this.originalLocation = originalLocation;
             this.cameraEntityId = cameraEntityId;
             this.cameraEntityUUID = cameraEntityUUID;
-            this.currentLocation = originalLocation.clone();
+            this.currentPose = new CameraPose(originalLocation);
         }
         
         public int getCameraEntityId() {
@@ -333,12 +728,12 @@ public class ProtocolCameraController {
             return originalLocation;
         }
         
-        public Location getCurrentLocation() {
-            return currentLocation;
+        public CameraPose getCurrentPose() {
+            return currentPose;
         }
         
-        public void setCurrentLocation(Location currentLocation) {
-            this.currentLocation = currentLocation;
+        public CameraPacketEncoder getEncoder() {
+            return encoder;
         }
         
         public boolean isAnimating() {
@@ -348,5 +743,83 @@ public class ProtocolCameraController {
         public void setAnimating(boolean animating) {
             this.animating = animating;
         }
+        
+        public CameraTickDriver.Entry getAnimation() {
+            return animation;
+        }
+        
+        public void setAnimation(CameraTickDriver.Entry animation) {
+            this.animation = animation;
+        }
+        
+        /**
+         * 停止当前播放的动画
+         */
+        public void stopAnimation(CameraTickDriver tickDriver) {
+            if (animation != null) {
+                tickDriver.remove(animation);
+                animation = null;
+            }
+        }
+    }
+
+    /**
+     * 广播类，所有观众共用一个摄像机实体ID和编码器
+     */
+    private static class Broadcast {
+        private final String name;
+        private final int cameraEntityId;
+        private final UUID cameraEntityUUID;
+        private final CameraPacketEncoder encoder;
+        private final CameraPose sentPose = new CameraPose(); // 最近一次发送给观众的姿态
+        private final Location spawnLocation; // 新观众生成实体时复用的位置对象
+        private final Map<UUID, Player> viewers = new LinkedHashMap<>();
+        private CameraTickDriver.Entry animation;
+        
+        public Broadcast(String name, int cameraEntityId, UUID cameraEntityUUID, CameraPacketEncoder encoder,
+                         Location origin) {
+            this.name = name;
+            this.cameraEntityId = cameraEntityId;
+            this.cameraEntityUUID = cameraEntityUUID;
+            this.encoder = encoder;
+            this.spawnLocation = origin.clone();
+            this.sentPose.set(origin);
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public int getCameraEntityId() {
+            return cameraEntityId;
+        }
+        
+        public UUID getCameraEntityUUID() {
+            return cameraEntityUUID;
+        }
+        
+        public CameraPacketEncoder getEncoder() {
+            return encoder;
+        }
+        
+        public CameraPose getSentPose() {
+            return sentPose;
+        }
+        
+        public Location getSpawnLocation() {
+            return spawnLocation;
+        }
+        
+        public Map<UUID, Player> getViewers() {
+            return viewers;
+        }
+        
+        public CameraTickDriver.Entry getAnimation() {
+            return animation;
+        }
+        
+        public void setAnimation(CameraTickDriver.Entry animation) {
+            this.animation = animation;
+        }
     }
 }
@@ -0,0 +1,163 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPose;
+import cn.popcraft.model.KeyframeTrack;
+
+/**
+ * 向心Catmull-Rom样条路径，在编译时间轴时预先计算
+ * 每个段落转换为三次多项式系数，并预先建立弧长查找表，
+ * 采样时只需查表和计算多项式，不做数值积分，也不创建对象
+ */
+final class SplinePath {
+    private static final int ARC_SAMPLES = 16; // 每个段落的弧长采样数
+    private static final double ALPHA = 0.5; // 向心参数化
+    private static final double EPSILON = 1e-6;
+
+    private final int segmentCount;
+    private final double[] coefficients; // 每段12个系数: x/y/z 各 a,b,c,d
+    private final double[] arcLengths; // 每段 ARC_SAMPLES + 1 个累计弧长
+
+    SplinePath(KeyframeTrack track) {
+        int count = track.size();
+        this.segmentCount = Math.max(count - 1, 0);
+        this.coefficients = new double[segmentCount * 12];
+        this.arcLengths = new double[segmentCount * (ARC_SAMPLES + 1)];
+
+        for (int i = 0; i < segmentCount; i++) {
+            buildSegment(track, i);
+            buildArcTable(i);
+        }
+    }
+
+    /**
+     * 计算一个段落的多项式系数
+     * 使用非均匀参数的Hermite形式，端点用镜像点补齐
+     */
+    private void buildSegment(KeyframeTrack track, int segment) {
+        int last = track.size() - 1;
+        int i1 = segment;
+        int i2 = segment + 1;
+
+        double p1x = track.getX(i1), p1y = track.getY(i1), p1z = track.getZ(i1);
+        double p2x = track.getX(i2), p2y = track.getY(i2), p2z = track.getZ(i2);
+        double p0x, p0y, p0z, p3x, p3y, p3z;
+        if (i1 > 0) {
+            p0x = track.getX(i1 - 1);
+            p0y = track.getY(i1 - 1);
+            p0z = track.getZ(i1 - 1);
+        } else {
+            p0x = 2 * p1x - p2x;
+            p0y = 2 * p1y - p2y;
+            p0z = 2 * p1z - p2z;
+        }
+        if (i2 < last) {
+            p3x = track.getX(i2 + 1);
+            p3y = track.getY(i2 + 1);
+            p3z = track.getZ(i2 + 1);
+        } else {
+            p3x = 2 * p2x - p1x;
+            p3y = 2 * p2y - p1y;
+            p3z = 2 * p2z - p1z;
+        }
+
+        double dt0 = knotInterval(p0x, p0y, p0z, p1x, p1y, p1z);
+        double dt1 = knotInterval(p1x, p1y, p1z, p2x, p2y, p2z);
+        double dt2 = knotInterval(p2x, p2y, p2z, p3x, p3y, p3z);
+
+        int base = segment * 12;
+        buildAxis(base, p0x, p1x, p2x, p3x, dt0, dt1, dt2);
+        buildAxis(base + 4, p0y, p1y, p2y, p3y, dt0, dt1, dt2);
+        buildAxis(base + 8, p0z, p1z, p2z, p3z, dt0, dt1, dt2);
+    }
+
+    private static double knotInterval(double ax, double ay, double az, double bx, double by, double bz) {
+        double dx = bx - ax, dy = by - ay, dz = bz - az;
+        double interval = Math.pow(dx * dx + dy * dy + dz * dz, ALPHA * 0.5);
+        return interval < EPSILON ? EPSILON : interval;
+    }
+
+    private void buildAxis(int offset, double p0, double p1, double p2, double p3,
+                           double dt0, double dt1, double dt2) {
+        // 非均匀Catmull-Rom切线，再缩放到 [0,1] 参数区间
+        double m1 = ((p1 - p0) / dt0 - (p2 - p0) / (dt0 + dt1) + (p2 - p1) / dt1) * dt1;
+        double m2 = ((p2 - p1) / dt1 - (p3 - p1) / (dt1 + dt2) + (p3 - p2) / dt2) * dt1;
+
+        coefficients[offset] = 2 * p1 - 2 * p2 + m1 + m2;
+        coefficients[offset + 1] = -3 * p1 + 3 * p2 - 2 * m1 - m2;
+        coefficients[offset + 2] = m1;
+        coefficients[offset + 3] = p1;
+    }
+
+    /**
+     * 建立段落的累计弧长表(用折线长度近似)
+     */
+    private void buildArcTable(int segment) {
+        int base = segment * (ARC_SAMPLES + 1);
+        int c = segment * 12;
+        double prevX = coefficients[c + 3];
+        double prevY = coefficients[c + 7];
+        double prevZ = coefficients[c + 11];
+        arcLengths[base] = 0;
+        for (int k = 1; k <= ARC_SAMPLES; k++) {
+            double u = (double) k / ARC_SAMPLES;
+            double x = evaluate(c, u);
+            double y = evaluate(c + 4, u);
+            double z = evaluate(c + 8, u);
+            double dx = x - prevX, dy = y - prevY, dz = z - prevZ;
+            arcLengths[base + k] = arcLengths[base + k - 1] + Math.sqrt(dx * dx + dy * dy + dz * dz);
+            prevX = x;
+            prevY = y;
+            prevZ = z;
+        }
+    }
+
+    private double evaluate(int offset, double u) {
+        return ((coefficients[offset] * u + coefficients[offset + 1]) * u + coefficients[offset + 2]) * u
+            + coefficients[offset + 3];
+    }
+
+    /**
+     * 按弧长比例采样段落上的位置并写入姿态，只修改坐标
+     * @param segment 段落索引
+     * @param arcFraction 段落内的弧长比例 (0.0 到 1.0)
+     * @param out 输出姿态
+     */
+    void positionInto(int segment, double arcFraction, CameraPose out) {
+        double s = arcFraction <= 0 ? 0 : (arcFraction >= 1 ? 1 : arcFraction);
+        double u = arcToParameter(segment, s);
+        int c = segment * 12;
+        out.setPosition(evaluate(c, u), evaluate(c + 4, u), evaluate(c + 8, u));
+    }
+
+    /**
+     * 通过弧长表将弧长比例映射为曲线参数
+     */
+    private double arcToParameter(int segment, double s) {
+        int base = segment * (ARC_SAMPLES + 1);
+        double length = arcLengths[base + ARC_SAMPLES];
+        if (length <= EPSILON) {
+            return s;
+        }
+        double target = s * length;
+
+        // 在段落的弧长表中二分查找第一个不小于目标的采样点
+        int low = 1;
+        int high = ARC_SAMPLES;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arcLengths[base + mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        double before = arcLengths[base + low - 1];
+        double span = arcLengths[base + low] - before;
+        double fraction = span > 0 ? (target - before) / span : 0;
+        return (low - 1 + fraction) / ARC_SAMPLES;
+    }
+
+    int getSegmentCount() {
+        return segmentCount;
+    }
+}
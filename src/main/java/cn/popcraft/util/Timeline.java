@@ -1,31 +1,66 @@
 package cn.popcraft.util;
 
 import cn.popcraft.model.CameraPreset;
+import cn.popcraft.model.Easing;
+import cn.popcraft.model.KeyframeTrack;
+import cn.popcraft.model.PathMode;
 import cn.popcraft.model.TransitionType;
 import org.bukkit.Location;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.TreeMap;
 
 /**
  * 时间轴类，用于管理相机路径、文本显示和命令执行的时间点
+ * 作为可变的构建器使用，播放前通过 {@link #compile()} 生成不可变的 {@link CompiledTimeline}
  */
 public class Timeline {
-    private final List<Location> keyframes;
-    private final TreeMap<Long, CameraPreset.TextAction> textActions;
-    private final TreeMap<Long, CameraPreset.CommandAction> commandActions;
-    private final List<TransitionType> transitionTypes; // 每个段落的过渡类型
-    private final List<Long> segmentDurations; // 每个段落的持续时间
-    private long totalDuration; // 总持续时间(毫秒)
+    private final KeyframeTrack keyframes;
+    private final ActionTrack.Builder<CameraPreset.TextAction> textActions; // 同一时间可以有多个动作
+    private final ActionTrack.Builder<CameraPreset.CommandAction> commandActions;
+    private final List<Easing> easings; // 每个段落的缓动曲线
+    private final FenwickTree segmentDurations; // 每个段落的持续时间，修改和按时间查找均为 O(log n)
+    private long actionDuration; // 文本和命令动作的结束时间(毫秒)
+    private PathMode pathMode = PathMode.LINEAR; // 关键帧之间的路径模式
     
     public Timeline() {
-        this.keyframes = new ArrayList<>();
-        this.textActions = new TreeMap<>();
-        this.commandActions = new TreeMap<>();
-        this.transitionTypes = new ArrayList<>();
-        this.segmentDurations = new ArrayList<>();
-        this.totalDuration = 0;
+        this.keyframes = new KeyframeTrack();
+        this.textActions = new ActionTrack.Builder<>();
+        this.commandActions = new ActionTrack.Builder<>();
+        this.easings = new ArrayList<>();
+        this.segmentDurations = new FenwickTree();
+        this.actionDuration = 0;
+    }
+    
+    /**
+     * 根据预设构建时间轴，只复制坐标数组，播放时再绑定世界
+     * @param preset 相机预设
+     * @return 时间轴
+     */
+    public static Timeline fromPreset(CameraPreset preset) {
+        Timeline timeline = new Timeline();
+        
+        // 添加路径点
+        timeline.addKeyframes(preset.getKeyframes());
+        timeline.setPathMode(preset.getPathMode());
+        
+        // 设置每个段落的过渡类型和持续时间
+        List<CameraPreset.SegmentInfo> segmentInfos = preset.getSegmentInfos();
+        for (int i = 0; i < segmentInfos.size(); i++) {
+            CameraPreset.SegmentInfo segmentInfo = segmentInfos.get(i);
+            timeline.setSegmentTransition(i, segmentInfo.getEasing(), segmentInfo.getDuration());
+        }
+        
+        // 添加文本动作
+        for (CameraPreset.TextAction text : preset.getTexts()) {
+            timeline.addTextAction(text.getDelay(), text);
+        }
+        
+        // 添加命令动作
+        for (CameraPreset.CommandAction cmd : preset.getCommands()) {
+            timeline.addCommandAction(cmd.getDelay(), cmd);
+        }
+        return timeline;
     }
     
     /**
@@ -36,155 +71,149 @@ public class Timeline {
         keyframes.add(location);
         // 如果不是第一个点，添加默认过渡类型
         if (keyframes.size() > 1) {
-            transitionTypes.add(TransitionType.SMOOTH);
+            easings.add(TransitionType.SMOOTH);
             segmentDurations.add(3000L); // 默认3秒
         }
     }
     
     /**
-     * 设置段落的过渡类型和持续时间
+     * 批量添加关键帧，直接复制坐标数组
+     * @param track 关键帧轨道
+     */
+    public void addKeyframes(KeyframeTrack track) {
+        int before = keyframes.size();
+        keyframes.addAll(track);
+        // 为新增的每个段落添加默认过渡类型
+        for (int i = Math.max(before, 1); i < keyframes.size(); i++) {
+            easings.add(TransitionType.SMOOTH);
+            segmentDurations.add(3000L); // 默认3秒
+        }
+    }
+    
+    /**
+     * 设置段落的缓动曲线和持续时间
      * @param segmentIndex 段落索引
-     * @param transitionType 过渡类型
+     * @param easing 缓动曲线
      * @param duration 持续时间(毫秒)
      */
-    public void setSegmentTransition(int segmentIndex, TransitionType transitionType, long duration) {
-        if (segmentIndex >= 0 && segmentIndex < transitionTypes.size()) {
-            transitionTypes.set(segmentIndex, transitionType);
-            segmentDurations.set(segmentIndex, duration);
-            
-            // 重新计算总持续时间
-            recalculateTotalDuration();
+    public void setSegmentTransition(int segmentIndex, Easing easing, long duration) {
+        if (segmentIndex >= 0 && segmentIndex < easings.size()) {
+            easings.set(segmentIndex, easing);
+            segmentDurations.set(segmentIndex, Math.max(0, duration));
         }
     }
     
     /**
-     * 重新计算总持续时间
+     * 只修改段落的持续时间，O(log n)
+     * @param segmentIndex 段落索引
+     * @param duration 持续时间(毫秒)
      */
-    private void recalculateTotalDuration() {
-        totalDuration = 0;
-        for (Long duration : segmentDurations) {
-            totalDuration += duration;
+    public void setSegmentDuration(int segmentIndex, long duration) {
+        if (segmentIndex >= 0 && segmentIndex < segmentDurations.size()) {
+            segmentDurations.set(segmentIndex, Math.max(0, duration));
         }
     }
     
     /**
-     * 添加文本动作
-     * @param delay 延迟时间(毫秒)
-     * @param textAction 文本动作
+     * 获取段落的持续时间
+     * @param segmentIndex 段落索引
+     * @return 持续时间(毫秒)
      */
-    public void addTextAction(long delay, CameraPreset.TextAction textAction) {
-        textActions.put(delay, textAction);
-        // 更新总持续时间
-        long end = delay + textAction.getDuration();
-        if (end > totalDuration) {
-            totalDuration = end;
-        }
+    public long getSegmentDuration(int segmentIndex) {
+        return segmentDurations.get(segmentIndex);
     }
     
     /**
-     * 添加命令动作
-     * @param delay 延迟时间(毫秒)
-     * @param commandAction 命令动作
+     * 获取段落的开始时间，O(log n)
+     * @param segmentIndex 段落索引
+     * @return 开始时间(毫秒)
      */
-    public void addCommandAction(long delay, CameraPreset.CommandAction commandAction) {
-        commandActions.put(delay, commandAction);
-        if (delay > totalDuration) {
-            totalDuration = delay;
-        }
+    public long getSegmentStart(int segmentIndex) {
+        return segmentDurations.prefixSum(segmentIndex);
     }
     
     /**
-     * 获取指定时间点的位置
+     * 查找时间点所在的段落，O(log n)
+     * 恰好落在段落边界上的时间归属前一段
      * @param elapsed 已经过的时间(毫秒)
-     * @return 对应的时间点位置
+     * @return 段落索引，没有段落时返回-1
      */
-    public Location getLocationAt(long elapsed) {
-        if (keyframes.isEmpty()) {
-            return null;
-        }
-        
-        if (keyframes.size() == 1) {
-            return keyframes.get(0);
-        }
-        
-        // 如果时间超过了总持续时间，返回最后一个关键帧
-        if (elapsed >= totalDuration) {
-            return keyframes.get(keyframes.size() - 1);
-        }
-        
-        // 找到当前所在的段落
-        long accumulatedTime = 0;
-        for (int i = 0; i < segmentDurations.size(); i++) {
-            long segmentDuration = segmentDurations.get(i);
-            if (elapsed <= accumulatedTime + segmentDuration || i == segmentDurations.size() - 1) {
-                // 计算在当前段落中的进度
-                long timeInSegment = elapsed - accumulatedTime;
-                float progress = (float) timeInSegment / segmentDuration;
-                
-                // 获取过渡类型
-                TransitionType transitionType = transitionTypes.get(i);
-                
-                // 使用对应的插值函数
-                return PathInterpolator.interpolate(
-                    keyframes.get(i), 
-                    keyframes.get(i + 1), 
-                    progress, 
-                    transitionType
-                );
-            }
-            accumulatedTime += segmentDuration;
+    public int getSegmentAt(long elapsed) {
+        if (segmentDurations.size() == 0) {
+            return -1;
         }
-        
-        // 默认返回最后一个关键帧
-        return keyframes.get(keyframes.size() - 1);
+        return segmentDurations.find(elapsed);
     }
     
     /**
-     * 获取在指定时间需要执行的文本动作
-     * @param elapsed 已经过的时间(毫秒)
-     * @param delta 检查的时间间隔(毫秒)
-     * @return 需要执行的文本动作列表
+     * 获取段落数量
+     * @return 段落数量
      */
-    public List<CameraPreset.TextAction> getTextActionsAt(long elapsed, long delta) {
-        List<CameraPreset.TextAction> actions = new ArrayList<>();
-        long start = elapsed;
-        long end = elapsed + delta;
-        
-        for (Long time : textActions.keySet()) {
-            if (time >= start && time < end) {
-                actions.add(textActions.get(time));
-            }
-        }
-        
-        return actions;
+    public int getSegmentCount() {
+        return segmentDurations.size();
     }
     
     /**
-     * 获取在指定时间需要执行的命令动作
-     * @param elapsed 已经过的时间(毫秒)
-     * @param delta 检查的时间间隔(毫秒)
-     * @return 需要执行的命令动作列表
+     * 设置路径模式
+     * @param pathMode 路径模式
      */
-    public List<CameraPreset.CommandAction> getCommandActionsAt(long elapsed, long delta) {
-        List<CameraPreset.CommandAction> actions = new ArrayList<>();
-        long start = elapsed;
-        long end = elapsed + delta;
-        
-        for (Long time : commandActions.keySet()) {
-            if (time >= start && time < end) {
-                actions.add(commandActions.get(time));
-            }
-        }
-        
-        return actions;
+    public void setPathMode(PathMode pathMode) {
+        this.pathMode = pathMode != null ? pathMode : PathMode.LINEAR;
     }
     
     /**
-     * 获取总持续时间
+     * 获取路径模式
+     * @return 路径模式
+     */
+    public PathMode getPathMode() {
+        return pathMode;
+    }
+    
+    /**
+     * 添加文本动作
+     * @param delay 延迟时间(毫秒)
+     * @param textAction 文本动作
+     */
+    public void addTextAction(long delay, CameraPreset.TextAction textAction) {
+        textActions.add(delay, textAction);
+        // 更新动作结束时间
+        actionDuration = Math.max(actionDuration, delay + textAction.getDuration());
+    }
+    
+    /**
+     * 添加命令动作
+     * @param delay 延迟时间(毫秒)
+     * @param commandAction 命令动作
+     */
+    public void addCommandAction(long delay, CameraPreset.CommandAction commandAction) {
+        commandActions.add(delay, commandAction);
+        actionDuration = Math.max(actionDuration, delay);
+    }
+    
+    /**
+     * 编译时间轴，生成用于播放的不可变时间轴
+     * 编译结果与当前时间轴互不影响，之后对时间轴的修改不会反映到编译结果中
+     * @return 编译后的时间轴
+     */
+    public CompiledTimeline compile() {
+        return new CompiledTimeline(keyframes, pathMode, easings, segmentDurations.toArray(),
+            actionDuration, textActions.build(), commandActions.build());
+    }
+    
+    /**
+     * 获取总持续时间，包含路径以及文本和命令动作，O(log n)
      * @return 总持续时间(毫秒)
      */
     public long getTotalDuration() {
-        return totalDuration;
+        return Math.max(segmentDurations.total(), actionDuration);
+    }
+    
+    /**
+     * 获取路径部分的持续时间，O(log n)
+     * @return 路径持续时间(毫秒)
+     */
+    public long getPathDuration() {
+        return segmentDurations.total();
     }
     
     /**
@@ -192,7 +221,7 @@ public class Timeline {
      * @return 是否为空
      */
     public boolean isEmpty() {
-        return keyframes.isEmpty() && textActions.isEmpty() && commandActions.isEmpty();
+        return keyframes.isEmpty() && textActions.size() == 0 && commandActions.size() == 0;
     }
     
     /**
@@ -210,7 +239,7 @@ public class Timeline {
      */
     public Location getKeyframe(int index) {
         if (index >= 0 && index < keyframes.size()) {
-            return keyframes.get(index);
+            return keyframes.toLocation(index, null);
         }
         return null;
     }
@@ -0,0 +1,68 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPreset;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 编译时间轴缓存，按预设名称保存与世界无关的 {@link CompiledTimeline}
+ * 每个缓存项记录编译时的预设对象和版本号，预设被替换或修改后下一次获取时自动重新编译，
+ * 多个玩家播放同一个预设时共享同一个编译结果，播放时只需要绑定玩家和世界
+ */
+public class TimelineCache {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 获取预设的编译时间轴，缓存不存在或已过期时重新编译
+     * @param presetName 预设名称
+     * @param preset 相机预设
+     * @return 编译后的时间轴
+     */
+    public CompiledTimeline get(String presetName, CameraPreset preset) {
+        int version = preset.getVersion();
+        Entry entry = entries.get(presetName);
+        if (entry != null && entry.preset == preset && entry.version == version) {
+            return entry.timeline;
+        }
+
+        CompiledTimeline timeline = Timeline.fromPreset(preset).compile();
+        entries.put(presetName, new Entry(preset, version, timeline));
+        return timeline;
+    }
+
+    /**
+     * 移除指定预设的缓存
+     * @param presetName 预设名称
+     */
+    public void invalidate(String presetName) {
+        entries.remove(presetName);
+    }
+
+    /**
+     * 清空所有缓存
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 获取缓存的时间轴数量
+     * @return 缓存数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final CameraPreset preset;
+        private final int version;
+        private final CompiledTimeline timeline;
+
+        Entry(CameraPreset preset, int version, CompiledTimeline timeline) {
+            this.preset = preset;
+            this.version = version;
+            this.timeline = timeline;
+        }
+    }
+}
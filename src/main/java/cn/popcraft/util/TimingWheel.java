@@ -0,0 +1,228 @@
+package cn.popcraft.util;
+
+import java.util.logging.Logger;
+
+/**
+ * 分层时间轮，以tick为单位调度延迟任务，由 {@link CameraTickDriver} 每tick推进一次
+ * 共4层，每层64个槽位，覆盖 64^4 个tick(约9.7天)，更远的任务放在溢出链表中，
+ * 每转完一圈重新分配一次，不需要串联多个任务
+ * 添加和取消都是 O(1)，同一分组中的任务可以一次性取消，只能在主线程使用
+ */
+public class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final Logger logger;
+    private final Timer[] buckets = new Timer[LEVELS * SLOTS]; // 每个槽位一个环形链表的哨兵节点
+    private final Timer overflow = new Timer(null); // 超出时间轮范围的任务
+    private long currentTick;
+    private int pendingCount;
+
+    public TimingWheel(Logger logger) {
+        this.logger = logger;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Timer(null);
+        }
+    }
+
+    /**
+     * 延迟任务，同时位于一个槽位链表和一个可选的分组链表中
+     */
+    public static final class Timer {
+        private final Runnable task;
+        private long deadline;
+        private Timer prev = this;
+        private Timer next = this;
+        private Timer groupPrev = this;
+        private Timer groupNext = this;
+        private boolean pending;
+
+        private Timer(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * 检查任务是否还未执行且未被取消
+         * @return 是否等待执行
+         */
+        public boolean isPending() {
+            return pending;
+        }
+    }
+
+    /**
+     * 任务分组，用于一次性取消同一会话或同一玩家的所有任务
+     */
+    public static final class TimerGroup {
+        private final Timer head = new Timer(null);
+
+        /**
+         * 检查分组中是否还有等待执行的任务
+         * @return 是否为空
+         */
+        public boolean isEmpty() {
+            return head.groupNext == head;
+        }
+    }
+
+    /**
+     * 调度延迟任务
+     * @param delayTicks 延迟(tick)，小于1时按1处理，即在下一次推进时执行
+     * @param task 任务
+     * @param group 所属分组，可以为null
+     * @return 任务句柄，可用于取消
+     */
+    public Timer schedule(long delayTicks, Runnable task, TimerGroup group) {
+        Timer timer = new Timer(task);
+        timer.deadline = currentTick + Math.max(1, delayTicks);
+        timer.pending = true;
+        place(timer);
+        if (group != null) {
+            Timer head = group.head;
+            timer.groupPrev = head.groupPrev;
+            timer.groupNext = head;
+            head.groupPrev.groupNext = timer;
+            head.groupPrev = timer;
+        }
+        pendingCount++;
+        return timer;
+    }
+
+    /**
+     * 取消任务，已执行或已取消时忽略
+     * @param timer 任务句柄
+     */
+    public void cancel(Timer timer) {
+        if (timer == null || !timer.pending) {
+            return;
+        }
+        detach(timer);
+    }
+
+    /**
+     * 取消分组中的所有任务
+     * @param group 分组
+     */
+    public void cancelAll(TimerGroup group) {
+        Timer head = group.head;
+        while (head.groupNext != head) {
+            detach(head.groupNext);
+        }
+    }
+
+    /**
+     * 推进一个tick并执行到期的任务
+     */
+    public void advance() {
+        currentTick++;
+        if (pendingCount == 0) {
+            return;
+        }
+
+        // 从高层到低层把当前槽位的任务重新分配到更低的层
+        if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            cascade(overflow);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                cascade(buckets[level * SLOTS + slotIndex(currentTick, level)]);
+            }
+        }
+
+        // 第0层当前槽位中的任务都在本tick到期，执行时新调度的任务至少延迟1tick，不会进入这个槽位
+        Timer bucket = buckets[slotIndex(currentTick, 0)];
+        while (bucket.next != bucket) {
+            Timer timer = bucket.next;
+            detach(timer);
+            try {
+                timer.task.run();
+            } catch (Exception e) {
+                logger.severe("执行延迟任务失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 获取等待执行的任务数量
+     * @return 数量
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * 检查是否没有等待执行的任务
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return pendingCount == 0;
+    }
+
+    /**
+     * 取消所有任务
+     */
+    public void clear() {
+        for (Timer bucket : buckets) {
+            while (bucket.next != bucket) {
+                detach(bucket.next);
+            }
+        }
+        while (overflow.next != overflow) {
+            detach(overflow.next);
+        }
+    }
+
+    /**
+     * 按到期时间与当前时间的最高不同位选择层级，保证任务所在槽位在该层当前槽位之后
+     */
+    private void place(Timer timer) {
+        long diff = timer.deadline ^ currentTick;
+        Timer bucket = overflow;
+        for (int level = 0; level < LEVELS; level++) {
+            if ((diff >>> (SLOT_BITS * (level + 1))) == 0) {
+                bucket = buckets[level * SLOTS + slotIndex(timer.deadline, level)];
+                break;
+            }
+        }
+        timer.prev = bucket.prev;
+        timer.next = bucket;
+        bucket.prev.next = timer;
+        bucket.prev = timer;
+    }
+
+    /**
+     * 把链表中的所有任务按当前时间重新放置
+     */
+    private void cascade(Timer bucket) {
+        Timer timer = bucket.next;
+        bucket.next = bucket;
+        bucket.prev = bucket;
+        while (timer != bucket) {
+            Timer next = timer.next;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    /**
+     * 从槽位链表和分组链表中移除
+     */
+    private void detach(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = timer;
+        timer.next = timer;
+        timer.groupPrev.groupNext = timer.groupNext;
+        timer.groupNext.groupPrev = timer.groupPrev;
+        timer.groupPrev = timer;
+        timer.groupNext = timer;
+        timer.pending = false;
+        pendingCount--;
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+}
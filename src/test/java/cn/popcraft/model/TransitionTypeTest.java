@@ -0,0 +1,87 @@
+package cn.popcraft.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 过渡类型查找表的误差检查
+ * 在与构建查找表时不同的密集网格上重新测量误差，确保每种过渡类型的误差都在允许范围内
+ */
+class TransitionTypeTest {
+    // 重新测量误差时的采样点数，不是查找表分段数的倍数
+    private static final int SAMPLES = 1_000_003;
+
+    /**
+     * 每种过渡类型允许的最大绝对误差
+     * 二次曲线在每个分段内的误差约为 二阶导数 * 步长² / 8，弹跳曲线在折点处误差最大
+     */
+    private static double errorBound(TransitionType type) {
+        switch (type) {
+            case NONE:
+            case LINEAR:
+                return 1e-12;
+            case BOUNCE:
+                return 5e-3;
+            case ELASTIC:
+                return 1e-3;
+            default:
+                return 1e-5;
+        }
+    }
+
+    @Test
+    void lookupErrorWithinBound() {
+        for (TransitionType type : TransitionType.values()) {
+            double error = 0;
+            for (int i = 0; i <= SAMPLES; i++) {
+                double t = (double) i / SAMPLES;
+                error = Math.max(error, Math.abs(type.lookup(t) - type.calculateExact(t)));
+            }
+            assertTrue(error <= errorBound(type), type + " 查找表误差 " + error);
+            assertTrue(type.getMaxLookupError() <= errorBound(type), type + " 记录的误差 " + type.getMaxLookupError());
+        }
+    }
+
+    @Test
+    void lookupMatchesEndpoints() {
+        for (TransitionType type : TransitionType.values()) {
+            assertEquals(type.calculateExact(0), type.lookup(0), 0, type + " 起点");
+            assertEquals(type.calculateExact(1), type.lookup(1), 0, type + " 终点");
+            // 超出范围的进度被截断到端点
+            assertEquals(type.lookup(0), type.lookup(-0.5), 0, type + " 小于0");
+            assertEquals(type.lookup(1), type.lookup(1.5), 0, type + " 大于1");
+        }
+    }
+
+    @Test
+    void lookupSwitchSelectsImplementation() {
+        double t = 0.3 + 1.0 / 1024;
+        try {
+            TransitionType.setLookupEnabled(false);
+            assertEquals(TransitionType.ELASTIC.calculateExact(t), TransitionType.ELASTIC.calculateProgress(t), 0);
+            TransitionType.setLookupEnabled(true);
+            assertEquals(TransitionType.ELASTIC.lookup(t), TransitionType.ELASTIC.calculateProgress(t), 0);
+        } finally {
+            TransitionType.setLookupEnabled(true);
+        }
+    }
+
+    @Test
+    void fastFormulasIgnoreLookupTable() {
+        // 二次曲线和弹跳曲线的公式比查表更快，弹跳曲线在折点处查表还有误差
+        double t = 0.3 + 1.0 / 1024;
+        for (TransitionType type : new TransitionType[]{
+                TransitionType.NONE, TransitionType.LINEAR, TransitionType.EASE_IN,
+                TransitionType.EASE_OUT, TransitionType.BOUNCE}) {
+            assertFalse(type.usesLookup(), type + " 不应使用查找表");
+            assertEquals(type.calculateExact(t), type.calculateProgress(t), 0, type.name());
+        }
+        for (TransitionType type : new TransitionType[]{
+                TransitionType.EASE_IN_OUT, TransitionType.SMOOTH, TransitionType.ELASTIC}) {
+            assertTrue(type.usesLookup(), type + " 应使用查找表");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPose;
+import cn.popcraft.model.CameraPreset;
+import cn.popcraft.model.KeyframeTrack;
+import cn.popcraft.model.PathMode;
+import cn.popcraft.model.TransitionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 帧缓冲在两帧之间的采样，异步线程以高于烘焙帧率的频率采样时不能出现阶梯
+ */
+class BakedTrackTest {
+    @Test
+    void samplesBetweenFramesAreInterpolated() {
+        // 直线匀速移动，偏航角跨过 180/-180
+        KeyframeTrack keyframes = new KeyframeTrack(2);
+        keyframes.add(0, 64, 0, 170, 0);
+        keyframes.add(10, 64, 0, -170, 10);
+        List<CameraPreset.SegmentInfo> segments = new ArrayList<>();
+        segments.add(new CameraPreset.SegmentInfo(TransitionType.LINEAR, 1000L));
+        CameraPreset preset = new CameraPreset("test");
+        preset.setPathMode(PathMode.LINEAR);
+        preset.setPath(keyframes, segments);
+        CompiledTimeline timeline = Timeline.fromPreset(preset).compile();
+        BakedTrack baked = BakedTrack.bake(timeline, 20);
+
+        // 按60Hz采样，每次采样都应该前进，并且与解析采样一致
+        CameraPose expected = new CameraPose();
+        CameraPose actual = new CameraPose();
+        double lastX = -1;
+        for (int frame = 0; frame <= 60; frame++) {
+            long time = frame * 1_000_000_000L / 60;
+            timeline.sampleExact(time, expected);
+            baked.sampleInto(time, actual);
+            assertTrue(frame == 0 || actual.getX() > lastX, "第 " + frame + " 帧没有前进");
+            lastX = actual.getX();
+            assertTrue(Math.abs(expected.getX() - actual.getX()) < 1e-6, "第 " + frame + " 帧坐标误差");
+            assertTrue(angle(expected.getYaw() - actual.getYaw()) < 0.5, "第 " + frame + " 帧偏航角误差");
+            assertTrue(angle(expected.getPitch() - actual.getPitch()) < 0.5, "第 " + frame + " 帧俯仰角误差");
+        }
+    }
+
+    private static double angle(double difference) {
+        double wrapped = Math.abs(difference) % 360;
+        return wrapped > 180 ? 360 - wrapped : wrapped;
+    }
+}
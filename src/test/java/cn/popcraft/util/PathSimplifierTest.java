@@ -0,0 +1,89 @@
+package cn.popcraft.util;
+
+import cn.popcraft.model.CameraPose;
+import cn.popcraft.model.CameraPreset;
+import cn.popcraft.model.KeyframeTrack;
+import cn.popcraft.model.PathMode;
+import cn.popcraft.model.TransitionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 路径简化的容差检查，简化前后的路径按预设的路径模式采样比较
+ */
+class PathSimplifierTest {
+    private static final double POSITION_TOLERANCE = 0.05;
+    private static final double ANGLE_TOLERANCE = 1.0;
+
+    @Test
+    void collinearLinearPathKeepsEndpoints() {
+        CameraPreset preset = createPreset(PathMode.LINEAR, 10, index -> new double[]{index, 64, 0, 0, 0});
+        assertEquals(8, PathSimplifier.simplify(preset, POSITION_TOLERANCE, ANGLE_TOLERANCE));
+        assertEquals(2, preset.getKeyframes().size());
+        assertEquals(9000L, preset.getSegmentInfos().get(0).getDuration());
+    }
+
+    @Test
+    void splinePathStaysWithinTolerance() {
+        // 直线后接一个急转，按直线估计时拐角附近的点可以移除，但样条在拐角处会明显过冲
+        double[][] points = {
+            {0, 64, 0}, {1, 64, 0}, {2, 64, 0}, {3, 64, 0}, {4, 64, 0},
+            {4.04, 64, 0.5}, {4.04, 64, 1.5}, {4.04, 64, 2.5}, {4.04, 64, 3.5}
+        };
+        CameraPreset preset = createPreset(PathMode.CATMULL_ROM, points.length, index -> new double[]{
+            points[index][0], points[index][1], points[index][2], index * 0.2, 0
+        });
+        CompiledTimeline original = Timeline.fromPreset(preset).compile();
+        long pathDuration = original.getPathDuration();
+
+        int removed = PathSimplifier.simplify(preset, POSITION_TOLERANCE, ANGLE_TOLERANCE);
+        assertTrue(removed > 0, "应当移除部分路径点");
+        CompiledTimeline simplified = Timeline.fromPreset(preset).compile();
+        assertEquals(pathDuration, simplified.getPathDuration());
+
+        // 在原路径点和原段落中点比较
+        CameraPose expected = new CameraPose();
+        CameraPose actual = new CameraPose();
+        for (long time = 0; time <= pathDuration; time += 500) {
+            original.sampleExact(time * 1_000_000L, expected);
+            simplified.sampleExact(time * 1_000_000L, actual);
+            double dx = expected.getX() - actual.getX();
+            double dy = expected.getY() - actual.getY();
+            double dz = expected.getZ() - actual.getZ();
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            assertTrue(distance <= POSITION_TOLERANCE + 1e-9, "时间 " + time + " 坐标误差 " + distance);
+            assertTrue(angle(expected.getYaw() - actual.getYaw()) <= ANGLE_TOLERANCE + 1e-4, "时间 " + time + " 偏航角误差");
+            assertTrue(angle(expected.getPitch() - actual.getPitch()) <= ANGLE_TOLERANCE + 1e-4, "时间 " + time + " 俯仰角误差");
+        }
+    }
+
+    private interface PointFunction {
+        double[] at(int index);
+    }
+
+    private static CameraPreset createPreset(PathMode pathMode, int count, PointFunction points) {
+        KeyframeTrack keyframes = new KeyframeTrack(count);
+        List<CameraPreset.SegmentInfo> segments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double[] point = points.at(i);
+            keyframes.add(point[0], point[1], point[2], (float) point[3], (float) point[4]);
+            if (i > 0) {
+                segments.add(new CameraPreset.SegmentInfo(TransitionType.LINEAR, 1000L));
+            }
+        }
+        CameraPreset preset = new CameraPreset("test");
+        preset.setPathMode(pathMode);
+        preset.setPath(keyframes, segments);
+        return preset;
+    }
+
+    private static double angle(double difference) {
+        double wrapped = Math.abs(difference) % 360;
+        return wrapped > 180 ? 360 - wrapped : wrapped;
+    }
+}
@@ -0,0 +1,43 @@
+package cn.popcraft.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 播放时钟的前进、暂停和跳转
+ */
+class PlaybackClockTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void seekReportsTargetBeforeAdvance() {
+        PlaybackClock clock = new PlaybackClock(PlaybackClock.CatchUpPolicy.SKIP, 100);
+        clock.start(0);
+        clock.advance(50 * MS);
+        clock.seek(2000);
+
+        // 跳转的目标位置不包含下一次前进的时间，播放任务据此把动作游标移到目标位置之前
+        assertEquals(2000 * MS, clock.pollSeek());
+        assertEquals(2050 * MS, clock.advance(100 * MS));
+        assertEquals(-1, clock.pollSeek());
+    }
+
+    @Test
+    void pauseHoldsPosition() {
+        PlaybackClock clock = new PlaybackClock(PlaybackClock.CatchUpPolicy.SKIP, 100);
+        clock.start(0);
+        clock.advance(100 * MS);
+        clock.pause();
+        assertEquals(100 * MS, clock.advance(500 * MS));
+        clock.resume();
+        assertEquals(150 * MS, clock.advance(550 * MS));
+    }
+
+    @Test
+    void stretchLimitsCatchUp() {
+        PlaybackClock clock = new PlaybackClock(PlaybackClock.CatchUpPolicy.STRETCH, 100 * MS);
+        clock.start(0);
+        assertEquals(100 * MS, clock.advance(2000 * MS));
+    }
+}